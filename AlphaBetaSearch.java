@@ -0,0 +1,678 @@
+import java.util.Arrays;
+
+/* AlphaBetaSearch is the depth-first minimax search (see DepthFirstSearch) with alpha-beta pruning. Alongside the score, the search keeps track
+    of the best score each player is already guaranteed elsewhere in the tree: alpha for the computer and beta for the opponent. Once a move is 
+    found that is at least as good for the player to move as the other player can already avoid, the rest of the moves in that position cannot
+    change the result and are skipped (a cutoff).
+
+    The earlier a good move is tried, the more gets cut off, so moves are ordered before they are searched. Moves are tried centre-first, as 
+    centre columns take part in the most lines. Ahead of that, moves that caused a cutoff at the same depth elsewhere in the tree (killer moves) 
+    are tried first, and the remaining moves are sorted by how often they have caused cutoffs over the whole search (the history heuristic).
+
+    The search can also be given a transposition table (see TranspositionTable). Positions are stored in the table once they have been searched,
+    and when the same position is reached again by a different order of moves the stored score is used instead of searching it again. Even when
+    the stored score cannot be used, the best move stored for the position is tried first. A position and its mirror image are stored as one
+    entry (see BitBoard.getCanonicalHash), so a line found in one half of the board is also used in the other half, and the best move is 
+    flipped on the way in and out when the entry belongs to the mirror image. When the position at the top of the search is its own mirror
+    image, such as the empty board, the moves in the right half are the same as those in the left half and are not searched.
+
+    The scores are the same as DepthFirstSearch and the pruning never changes the score of a move, so at the same depth both engines return the
+    same move. This also holds with a transposition table, as long as it only holds entries from the current search: a position is always the
+    same number of moves from the start of the search, so it is always searched to the same depth. Entries left over from an earlier, deeper 
+    search give better informed scores, which can lead to a different (better) move.
+
+    Instead of searching to a fixed depth, the search can be given a time budget for each move. It then uses iterative deepening: it searches 
+    to depth 1, then 2, then 3 and so on until the time runs out or the maximum depth is reached, and plays the best move from the last search
+    that finished. Each search starts by following the principal variation (the line of best play) found by the search before it, and the
+    transposition table, killers and history are kept between them, so the earlier searches make the later ones much quicker and little time
+    is wasted by searching the early depths again. */
+
+public class AlphaBetaSearch implements SearchEngine {
+
+//Fields
+    /* The move from the previous principal variation is always tried first, followed by the best move from the transposition table. Killer moves are the two most recent moves to cause a cutoff at each 
+        ply, and are given a bonus far above any history score. History scores are halved whenever one passes the limit, so they can never 
+        reach the killer bonus. */
+    private static final int PVBONUS = 1 << 30;
+    private static final int HASHMOVEBONUS = 1 << 29;
+    private static final int KILLERBONUS = 1 << 28;
+    private static final int HISTORYLIMIT = 1 << 20;
+
+    /* The tables below are sized for the board being searched, which is the standard board until a search is given a board of another size. 
+        boardWidth and boardHeight are the size they were made for, and maxPly is the number of squares on that board, which is the most 
+        moves a search can ever play. */
+    private int boardWidth;
+    private int boardHeight;
+    private int maxPly;
+
+    /* The columns in order of distance from the centre, which is the order moves are tried in when nothing else is known about them. For the 
+        standard board this is 3, 2, 4, 1, 5, 0, 6. */
+    private int[] centreOrder;
+
+    /* With no time budget, depth is the depth every search goes to. With a time budget it is the deepest the iterative deepening will go. */
+    private final int depth;
+    private long nodeCount;
+
+    // Counts of what the last search did, for the search statistics (see SearchEngine).
+    private long leafCount;
+    private long cutoffCount;
+    private long tableHits;
+
+    /* The time budget for each move in nanoseconds, or 0 to always search to the full depth. While searching with a budget the clock is checked 
+        every few thousand positions, and once the deadline has passed stopped is set and the search unwinds without using any more results. */
+    private static final int CLOCKCHECKINTERVAL = 4096;
+    private final long timeBudget;
+    private long deadline;
+    private boolean stopped;
+
+    /* Set by another thread to ask the search to stop (see stop). This is checked at the same time as the clock, so it is the only field 
+        that needs to be volatile. */
+    private volatile boolean stopRequested;
+    private int depthReached;
+    private int bestScore;
+
+    // The score of the move returned by the last search that finished, from the point of view of the player it was found for.
+    private int score;
+
+    // The transposition table, or null if the search does not use one.
+    private final TranspositionTable table;
+
+    // The evaluator used to score boards at the end of the search (see Evaluator).
+    private final Evaluator evaluator;
+
+    /* killers[ply] holds the two killer moves for that ply (-1 if there is none yet). history is indexed by the colour of the player and the
+        square the counter landed in (the bit index on the bitboard), and is increased each time a move causes a cutoff. */
+    private int[][] killers;
+    private int[][] history;
+
+    /* Each ply has its own array for the ordered moves and their ordering scores, so that ordering moves allocates nothing during the search. */
+    private int[][] moveLists;
+    private int[][] moveScores;
+
+    /* The principal variation is collected in a triangular table: pvTable[ply] holds the best line found from that ply onwards, which is 
+        pvLength[ply] - ply moves long. When a search finishes, the line from the root is copied to principalVariation for the next search to
+        follow. */
+    private int[][] pvTable;
+    private int[] pvLength;
+    private int[] principalVariation;
+    private int principalVariationLength;
+
+    /* Normally every search starts with empty killer and history tables and no principal variation. An EngineSession, which follows a whole
+        game, sets keepState so that they are carried over from one move to the next instead (see advance). */
+    private boolean keepState;
+
+    /* The endgame tablebase, or null if the search does not use one (see setTablebase). It can only be probed on boards of the size it was
+        generated for that fit in a LongBitBoard, so search works out whether it can be used and sets tablebaseBoard to the board being
+        searched if it can. Positions with at least tablebaseMoves counters are looked up. */
+    private Tablebase tablebase;
+    private LongBitBoard tablebaseBoard;
+    private int tablebaseMoves;
+    private long tablebaseHits;
+
+//Constructor
+    public AlphaBetaSearch(int depth){
+        this(depth, null);
+    }
+
+    public AlphaBetaSearch(int depth, TranspositionTable table){
+        this(depth, table, 0);
+    }
+
+    // A time budget of 0 milliseconds turns off iterative deepening, so every search goes to the full depth.
+    public AlphaBetaSearch(int depth, TranspositionTable table, long timeBudgetMillis){
+        this(depth, table, timeBudgetMillis, new RunLengthEvaluator());
+    }
+
+    public AlphaBetaSearch(int depth, TranspositionTable table, long timeBudgetMillis, Evaluator evaluator){
+        if (depth < 1){
+            throw new IllegalArgumentException("The search depth must be at least 1");
+        }
+        if (timeBudgetMillis < 0){
+            throw new IllegalArgumentException("The time budget cannot be negative");
+        }
+        this.depth = depth;
+        this.table = table;
+        this.evaluator = evaluator;
+        this.timeBudget = timeBudgetMillis * 1000000L;
+        allocateTables(BitBoard.create());
+    }
+
+//Accessors
+    public int returnDepth(){
+        return depth;
+    }
+
+    @Override
+    public long returnNodeCount(){
+        return nodeCount;
+    }
+
+    @Override
+    public long returnLeafCount(){
+        return leafCount;
+    }
+
+    @Override
+    public long returnCutoffCount(){
+        return cutoffCount;
+    }
+
+    @Override
+    public long returnTableHits(){
+        return tableHits;
+    }
+
+    public TranspositionTable returnTable(){
+        return table;
+    }
+
+    public Tablebase returnTablebase(){
+        return tablebase;
+    }
+
+    // The number of positions in the last search whose result was found in the tablebase.
+    public long returnTablebaseHits(){
+        return tablebaseHits;
+    }
+
+    // The depth of the last search that finished, which with a time budget is the depth the move played was found at.
+    @Override
+    public int returnDepthReached(){
+        return depthReached;
+    }
+
+    /* The score of the last move found, on the same scale as the evaluator, or DepthFirstSearch.WINSCORE less the number of counters on the
+        board when the game is won (negative if it is lost). */
+    public int returnScore(){
+        return score;
+    }
+
+    // Returns a copy of the principal variation from the last search that finished, starting with the move played.
+    @Override
+    public int[] returnPrincipalVariation(){
+        return Arrays.copyOf(principalVariation, principalVariationLength);
+    }
+
+//Methods
+    @Override
+    public int findMove(Board originalBoard, char colour){
+        return findMove(originalBoard.returnBitBoard(), colour);
+    }
+
+    // The same as findMove, for callers that keep a bitboard rather than a Board (see EngineSession).
+    public int findMove(BitBoard position, char colour){
+        clearStop();
+        if (table != null){
+            table.newSearch();
+        }
+        return search(position, colour, 0);
+    }
+
+    /* Asks a search running on another thread to stop. The search finishes within a few thousand positions and returns the best move from
+        the last depth it finished, as if it had run out of time (or -1 if it had not finished any). */
+    @Override
+    public void stop(){
+        stopRequested = true;
+    }
+
+    /* Gives the search a tablebase to look up positions near the end of the game in, or null to stop using one. A position in the tablebase
+        is not searched at all: it gets the exact score of the result stored for it, as if the search had played the game out to the end. The
+        search scores wins by how soon they happen, and the tablebase stores how many moves each result takes, so the scores are the same as
+        a search to the end would give. Positions not in the tablebase are searched as normal, and a tablebase for another board size is
+        ignored. */
+    public void setTablebase(Tablebase tablebase){
+        this.tablebase = tablebase;
+    }
+
+    /* Clears a request to stop, so the search can be run again. ParallelSearch does this for its helpers before handing them to another thread,
+        as clearing it on that thread could undo a stop that arrived before the helper had started. */
+    void clearStop(){
+        stopRequested = false;
+    }
+
+    /* Searches the given position without changing it, and returns the best move. This is used by findMove and by ParallelSearch, which runs
+        several searches on the same position at once. The main search has a helper number of 0 and searches as set up in the constructor. 
+        Helpers use iterative deepening with no deadline until they are stopped, and every other helper starts one depth deeper, so that the 
+        helpers spread out over different depths rather than all searching the same positions at the same time. */
+    int search(BitBoard position, char colour, int helperNumber){
+        BitBoard board = position.copy();
+        if (board.getWidth() != boardWidth || board.getBoardHeight() != boardHeight){
+            allocateTables(board);
+        }
+        evaluator.reset(board);
+        nodeCount = 0;
+        leafCount = 0;
+        cutoffCount = 0;
+        tableHits = 0;
+        tablebaseHits = 0;
+        depthReached = 0;
+        score = 0;
+        stopped = false;
+        if (!keepState){
+            principalVariationLength = 0;
+            clearTables();
+        }
+        tablebaseBoard = null;
+        if (tablebase != null && board instanceof LongBitBoard && tablebase.fits(board)){
+            tablebaseBoard = (LongBitBoard) board;
+            tablebaseMoves = maxPly - tablebase.returnMaxEmpty();
+        }
+
+        /* Without a time budget there is a single search to the full depth, which only stops if asked to. A search that was stopped has not
+            finished the depth, so its move and score are not saved, and -1 is returned as it is when a timed search finishes no depth. */
+        if (timeBudget == 0 && helperNumber == 0){
+            deadline = Long.MAX_VALUE;
+            int move = searchRoot(board, depth, colour);
+            if (stopped){
+                return -1;
+            }
+            saveResult(Math.min(depth, maxPly - board.getMoveCount()));
+            return move;
+        }
+
+        /* The first search is always allowed to finish so that there is a move to play, however short the budget. After that the searches go 
+            deeper until one is stopped by the deadline. There is no point going deeper once the search reaches the end of the game, or once
+            it has found a forced win or loss. */
+        deadline = Long.MAX_VALUE;
+        long start = System.nanoTime();
+        int emptySquares = maxPly - board.getMoveCount();
+        int bestMove = -1;
+        for (int searchDepth = 1 + helperNumber % 2; searchDepth <= Math.min(depth, emptySquares); searchDepth++){
+            int move = searchRoot(board, searchDepth, colour);
+            if (stopped){
+                break;
+            }
+            bestMove = move;
+            saveResult(searchDepth);
+            if (Math.abs(bestScore) >= DepthFirstSearch.WINSCORE - maxPly || stopRequested){
+                break;
+            }
+            if (helperNumber == 0 && timeBudget > 0){
+                deadline = start + timeBudget;
+                if (System.nanoTime() >= deadline){
+                    break;
+                }
+            }
+        }
+        return bestMove;
+    }
+
+    /* Searches each move from the top of the tree to the given depth and returns the best one. The score of the best move is left in bestScore.
+        The game ends once the board is full, so the depth is cut down to the number of empty squares, which also keeps it small enough to
+        store in the transposition table (see TranspositionTable.MAXDEPTH). */
+    private int searchRoot(BitBoard board, int searchDepth, char colour){
+        searchDepth = Math.min(searchDepth, maxPly - board.getMoveCount());
+        char opponent = DepthFirstSearch.opponentOf(colour);
+        int bestMove = -1;
+        bestScore = Integer.MIN_VALUE;
+        pvLength[0] = 0;
+
+        int moveCount = orderMoves(board, 0, colour, -1, previousPvMove(0, true));
+        int[] moves = moveLists[0];
+        boolean symmetric = board.isSymmetric();
+        for (int i = 0; i < moveCount; i++){
+            int col = moves[i];
+
+            // The mirror image of a move in the left half scores the same, and ties go to the leftmost column, so it could never be chosen.
+            if (symmetric && col > board.mirrorColumn(col)){
+                continue;
+            }
+            int row = board.play(col, colour);
+            evaluator.play(col, row, colour);
+            pvLength[1] = 1;
+            int score;
+            if (board.hasWon(colour)){
+                score = DepthFirstSearch.WINSCORE - board.getMoveCount();
+            }
+            else{
+                /* The moves at the top are searched in centre-first order, but to return the same move as the plain minimax search a tie must 
+                    go to the leftmost column. Setting alpha one below the best score means a move with an equal score returns its exact score 
+                    rather than being cut off, so ties can be spotted. */
+                int alpha = Integer.MIN_VALUE;
+                if (bestMove >= 0){
+                    alpha = bestScore - 1;
+                }
+                boolean onPv = col == previousPvMove(0, true);
+                score = alphaBeta(board, searchDepth - 1, 1, alpha, Integer.MAX_VALUE, opponent, colour, onPv);
+            }
+            board.undo();
+            evaluator.undo(col, row, colour);
+            if (stopped){
+                return -1;
+            }
+
+            if (score > bestScore || (score == bestScore && col < bestMove)){
+                bestScore = score;
+                bestMove = col;
+                updatePv(0, col);
+            }
+        }
+        return bestMove;
+    }
+
+    // Records the depth reached and keeps the principal variation of a finished search for the next search to follow.
+    private void saveResult(int searchDepth){
+        depthReached = searchDepth;
+        score = bestScore;
+        principalVariationLength = pvLength[0];
+        System.arraycopy(pvTable[0], 0, principalVariation, 0, principalVariationLength);
+    }
+
+    // Returns the move the previous principal variation plays at the given ply, or -1 if the search is no longer following it.
+    private int previousPvMove(int ply, boolean onPv){
+        if (onPv && ply < principalVariationLength){
+            return principalVariation[ply];
+        }
+        return -1;
+    }
+
+    // Sets the principal variation at the given ply to the given move followed by the principal variation of the position below it.
+    private void updatePv(int ply, int col){
+        pvTable[ply][ply] = col;
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    /* alphaBeta works like DepthFirstSearch's miniMax, but returns as soon as the score falls outside the window between alpha and beta. A 
+        score returned outside of the window is only a bound on the true score, but that is enough for the caller to know the move will not be 
+        chosen. */
+    private int alphaBeta(BitBoard board, int depth, int ply, int alpha, int beta, char player, char computer, boolean onPv){
+        nodeCount++;
+        pvLength[ply] = ply;
+
+        if ((nodeCount % CLOCKCHECKINTERVAL) == 0 && (stopRequested || System.nanoTime() >= deadline)){
+            stopped = true;
+        }
+        if (stopped){
+            return 0;
+        }
+
+        if (board.isFull()){
+            return 0;
+        }
+        if (tablebaseBoard != null && board.getMoveCount() >= tablebaseMoves){
+            int entry = tablebase.probe(tablebaseBoard, player);
+            if (entry != Tablebase.NOTFOUND){
+                tablebaseHits++;
+                return switchScore(tablebaseScore(entry, board.getMoveCount()), player == computer);
+            }
+        }
+        if (depth == 0){
+            leafCount++;
+            return evaluator.evaluate(board, computer);
+        }
+
+        boolean maximising = player == computer;
+
+        /* If the position is in the table, its best move is tried first. If it was searched at least as deep as needed here and the stored
+            score is exact, or is a bound that already falls outside the window, the stored score is returned without searching. */
+        int hashMove = -1;
+        if (table != null){
+            long entry = table.probe(board.getCanonicalHash());
+            if (entry != 0){
+                tableHits++;
+                hashMove = TranspositionTable.moveOf(entry);
+                if (hashMove >= 0 && board.isMirrored()){
+                    hashMove = board.mirrorColumn(hashMove);
+                }
+                if (TranspositionTable.depthOf(entry) >= depth){
+                    int storedScore = switchScore(TranspositionTable.scoreOf(entry), maximising);
+                    int bound = switchBound(TranspositionTable.boundOf(entry), maximising);
+                    if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && storedScore >= beta)
+                        || (bound == TranspositionTable.UPPER && storedScore <= alpha)){
+                        return storedScore;
+                    }
+                }
+            }
+        }
+
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int bestMove = -1;
+        int score;
+        if (maximising){
+            score = Integer.MIN_VALUE;
+        }
+        else{
+            score = Integer.MAX_VALUE;
+        }
+
+        int pvMove = previousPvMove(ply, onPv);
+        int moveCount = orderMoves(board, ply, player, hashMove, pvMove);
+        int[] moves = moveLists[ply];
+        for (int i = 0; i < moveCount; i++){
+            int col = moves[i];
+            int row = board.play(col, player);
+            evaluator.play(col, row, player);
+            pvLength[ply + 1] = ply + 1;
+            int moveScore;
+            if (board.hasWon(player)){
+                moveScore = DepthFirstSearch.WINSCORE - board.getMoveCount();
+                if (!maximising){
+                    moveScore = -moveScore;
+                }
+            }
+            else{
+                moveScore = alphaBeta(board, depth - 1, ply + 1, alpha, beta, DepthFirstSearch.opponentOf(player), computer, col == pvMove);
+            }
+            board.undo();
+            evaluator.undo(col, row, player);
+
+            // If the search ran out of time the score cannot be trusted, so nothing is stored and the search returns straight away.
+            if (stopped){
+                return 0;
+            }
+
+            if (maximising){
+                if (moveScore > score){
+                    score = moveScore;
+                    bestMove = col;
+                    updatePv(ply, col);
+                }
+                alpha = Math.max(alpha, score);
+            }
+            else{
+                if (moveScore < score){
+                    score = moveScore;
+                    bestMove = col;
+                    updatePv(ply, col);
+                }
+                beta = Math.min(beta, score);
+            }
+
+            // Once alpha reaches beta neither player would let the game reach this position, so the other moves do not need searching.
+            if (alpha >= beta){
+                cutoffCount++;
+                recordCutoff(ply, board.squareIndex(col, row), col, player, depth);
+                break;
+            }
+        }
+
+        if (table != null){
+            int bound = TranspositionTable.EXACT;
+            if (score <= originalAlpha){
+                bound = TranspositionTable.UPPER;
+            }
+            else if (score >= originalBeta){
+                bound = TranspositionTable.LOWER;
+            }
+            int storedMove = bestMove;
+            if (storedMove >= 0 && board.isMirrored()){
+                storedMove = board.mirrorColumn(storedMove);
+            }
+            table.store(board.getCanonicalHash(), depth, switchBound(bound, maximising), switchScore(score, maximising), storedMove);
+        }
+        return score;
+    }
+
+    /* Turns a tablebase result into a score for the player to move. A win the given number of moves from now is scored as the winning
+        counter would be when it is played. */
+    private static int tablebaseScore(int entry, int moveCount){
+        int result = Tablebase.resultOf(entry);
+        if (result == Tablebase.DRAW){
+            return 0;
+        }
+        int score = DepthFirstSearch.WINSCORE - (moveCount + Tablebase.distanceOf(entry));
+        if (result == Tablebase.LOSS){
+            return -score;
+        }
+        return score;
+    }
+
+    /* The search scores positions for the computer, but the table stores scores for the player to move, so that an entry means the same thing
+        whichever colour the computer is playing. For the opponent the score is negated, which also swaps upper and lower bounds. Negating twice 
+        gives back the original, so the same methods convert scores in both directions. */
+    private static int switchScore(int score, boolean maximising){
+        if (maximising){
+            return score;
+        }
+        return -score;
+    }
+
+    private static int switchBound(int bound, boolean maximising){
+        if (maximising || bound == TranspositionTable.EXACT){
+            return bound;
+        }
+        if (bound == TranspositionTable.LOWER){
+            return TranspositionTable.UPPER;
+        }
+        return TranspositionTable.LOWER;
+    }
+
+    /* Fills the move list for the given ply with the playable columns, ordered with the move from the previous principal variation first, then
+        the move from the transposition table (either is -1 if there is none), then killers, then by history score, and otherwise centre-first. 
+        Returns the number of moves. An insertion sort is used as there are only as many moves as columns, and it keeps moves with equal scores 
+        in centre-first order. */
+    private int orderMoves(BitBoard board, int ply, char player, int hashMove, int pvMove){
+        int[] moves = moveLists[ply];
+        int[] scores = moveScores[ply];
+        int[] playerHistory = history[BitBoard.colourIndex(player)];
+        int count = 0;
+
+        for (int i = 0; i < centreOrder.length; i++){
+            int col = centreOrder[i];
+            if (!board.canPlay(col)){
+                continue;
+            }
+            int score = playerHistory[board.squareIndex(col, board.getHeight(col))];
+            if (col == pvMove){
+                score += PVBONUS;
+            }
+            else if (col == hashMove){
+                score += HASHMOVEBONUS;
+            }
+            else if (col == killers[ply][0] || col == killers[ply][1]){
+                score += KILLERBONUS;
+            }
+
+            int j = count;
+            while (j > 0 && scores[j - 1] < score){
+                moves[j] = moves[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            moves[j] = col;
+            scores[j] = score;
+            count++;
+        }
+        return count;
+    }
+
+    // A move that caused a cutoff becomes a killer at that ply, and its history score is increased more the deeper the search was below it.
+    private void recordCutoff(int ply, int square, int col, char player, int depth){
+        if (killers[ply][0] != col){
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = col;
+        }
+        int[] playerHistory = history[BitBoard.colourIndex(player)];
+        playerHistory[square] += depth * depth;
+        if (playerHistory[square] > HISTORYLIMIT){
+            for (int i = 0; i < playerHistory.length; i++){
+                playerHistory[i] /= 2;
+            }
+        }
+    }
+
+    void setKeepState(boolean keepState){
+        this.keepState = keepState;
+    }
+
+    /* Called by an EngineSession for each move played in the game, so the state kept from the last search lines up with the new position.
+        Killers are stored by distance from the top of the search, so they all move up one ply. If the move is the next one in the principal 
+        variation, the rest of the line is still the best guess and is kept to be followed first; otherwise it is dropped. History scores 
+        stay with their squares, but are halved so that cutoffs from the new search soon count for more than old ones. */
+    void advance(int column){
+        for (int ply = 0; ply < maxPly; ply++){
+            killers[ply][0] = killers[ply + 1][0];
+            killers[ply][1] = killers[ply + 1][1];
+        }
+        killers[maxPly][0] = -1;
+        killers[maxPly][1] = -1;
+
+        if (principalVariationLength > 0 && principalVariation[0] == column){
+            principalVariationLength--;
+            System.arraycopy(principalVariation, 1, principalVariation, 0, principalVariationLength);
+        }
+        else{
+            principalVariationLength = 0;
+        }
+
+        for (int colour = 0; colour < 2; colour++){
+            for (int i = 0; i < history[colour].length; i++){
+                history[colour][i] /= 2;
+            }
+        }
+    }
+
+    // Drops the principal variation kept from the last search, when the game has not followed it.
+    void clearPrincipalVariation(){
+        principalVariationLength = 0;
+    }
+
+    // Forgets everything kept from earlier searches, for the start of a new game.
+    void newGame(){
+        clearTables();
+        clearPrincipalVariation();
+    }
+
+    private void clearTables(){
+        for (int ply = 0; ply <= maxPly; ply++){
+            killers[ply][0] = -1;
+            killers[ply][1] = -1;
+        }
+        for (int colour = 0; colour < 2; colour++){
+            Arrays.fill(history[colour], 0);
+        }
+    }
+
+    /* Sizes the tables for the given board. The history table uses the same index for a square as the bitboard does, so it has an entry for
+        every bit index. */
+    private void allocateTables(BitBoard board){
+        boardWidth = board.getWidth();
+        boardHeight = board.getBoardHeight();
+        maxPly = boardWidth * boardHeight;
+        centreOrder = centreOrder(boardWidth);
+        killers = new int[maxPly + 1][2];
+        history = new int[2][board.getSquareCount()];
+        moveLists = new int[maxPly + 1][boardWidth];
+        moveScores = new int[maxPly + 1][boardWidth];
+        pvTable = new int[maxPly + 1][maxPly + 1];
+        pvLength = new int[maxPly + 1];
+        principalVariation = new int[maxPly + 1];
+        principalVariationLength = 0;
+    }
+
+    static int[] centreOrder(int width){
+        int[] order = new int[width];
+        for (int i = 0; i < width; i++){
+            // Alternates either side of the centre: 0, -1, +1, -2, +2 ...
+            int offset = (i + 1) / 2;
+            if (i % 2 == 1){
+                offset = -offset;
+            }
+            order[i] = width / 2 + offset;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,297 @@
+import java.util.SplittableRandom;
+
+/* The BitBoard class stores the state of the board as a set of bits for each player, rather than as a two dimensional array of characters. 
+    Each column of the board takes up one more bit than the height of the board, with the bottom square of a column in the lowest bit. The 
+    extra bit on top of each column is always empty, which stops a sequence at the top of one column from running into the bottom of the next 
+    one.
+
+    With the standard 7x6 board the bits are laid out as follows:
+
+        .  .  .  .  .  .  .
+        5 12 19 26 33 40 47
+        4 11 18 25 32 39 46
+        3 10 17 24 31 38 45
+        2  9 16 23 30 37 44
+        1  8 15 22 29 36 43
+        0  7 14 21 28 35 42
+
+    Storing the board this way means that copying a board is just copying a few numbers, and checking for a line of counters can be done with 
+    a few shifts and ANDs rather than walking every row, column and diagonal. No objects are created by play, undo or the win checks, so the 
+    board can be used in the hot loops of the computer player without creating garbage.
+
+    The width, height and the number of counters in a row needed to win are chosen when the board is created. How the bits are stored depends 
+    on the size of the board, so BitBoard is abstract and create picks one of two versions:
+
+    - LongBitBoard stores each player's counters in a single 64 bit number. This is used whenever there are no more than 64 bits, counting 
+      the empty bit on top of each column, which covers every board up to 8x7 including the standard board.
+    - WideBitBoard spreads each player's counters over several 64 bit numbers, for larger boards such as 9x7.
+
+    Everything that does not depend on how the bits are stored, such as the height of each column, the moves played and the hash, is kept 
+    here, so the rest of the program can use any size of board without knowing which version it has. */
+
+public abstract class BitBoard {
+
+//Fields
+    // The standard board, which is what Board and the engines use unless they are given another size.
+    public static final int STANDARDWIDTH = 7;
+    public static final int STANDARDHEIGHT = 6;
+    public static final int STANDARDCONNECT = 4;
+
+    /* The largest board that can be created. Keeping the width below 16 means a column number always fits in four bits, and keeping both 
+        sizes small means the Zobrist numbers for every possible square fit in one small table. */
+    public static final int MAXWIDTH = 15;
+    public static final int MAXHEIGHT = 15;
+
+    /* The size of the board and the number of counters in a row needed to win. The number of bits used by each column is one more than the 
+        height (see above). */
+    protected final int width;
+    protected final int height;
+    protected final int connect;
+    protected final int columnBits;
+
+    // heights stores the number of counters in each column, which gives the row the next counter in that column will land in.
+    private final int[] heights;
+
+    /* Every move played is stored so that it can be taken back again with undo. This lets the computer player search by playing and undoing
+        moves on a single board instead of copying the board for every position. */
+    private final int[] moves;
+    private int moveCount;
+
+    /* The Zobrist hash of the position, used to look positions up in a transposition table (see TranspositionTable). Each colour has a random
+        number for each square, and the hash is all the numbers for the counters on the board XORed together. As XOR is its own inverse, the hash
+        is updated in play and undo by XORing in the number for the square that changed, rather than being worked out from the whole board. The
+        side to move does not need to be part of the hash, as it always follows from the number of counters on the board. */
+    private long hash;
+
+    /* The hash the position would have if it were mirrored left to right, kept up to date in the same way. A position and its mirror image 
+        are the same position as far as the game is concerned, so the smaller of the two hashes (see getCanonicalHash) can be used to store 
+        them both under one entry in a transposition table. */
+    private long mirrorHash;
+    private static final long[][] ZOBRIST = zobristKeys(MAXWIDTH * (MAXHEIGHT + 1));
+
+//Constructor
+    protected BitBoard(int width, int height, int connect){
+        this.width = width;
+        this.height = height;
+        this.connect = connect;
+        this.columnBits = height + 1;
+        heights = new int[width];
+        moves = new int[width * height];
+        moveCount = 0;
+        hash = 0;
+        mirrorHash = 0;
+    }
+
+    // Creates an empty standard 7x6 board.
+    public static BitBoard create(){
+        return create(STANDARDWIDTH, STANDARDHEIGHT, STANDARDCONNECT);
+    }
+
+    /* Creates an empty board of the given size, where a player needs connect counters in a row to win. The single number version is used 
+        whenever the board fits in one, as it is the quickest. */
+    public static BitBoard create(int width, int height, int connect){
+        if (width < 1 || width > MAXWIDTH || height < 1 || height > MAXHEIGHT){
+            throw new IllegalArgumentException("The board must be between 1x1 and " + MAXWIDTH + "x" + MAXHEIGHT);
+        }
+        if (connect < 2){
+            throw new IllegalArgumentException("A win must need at least 2 counters in a row");
+        }
+        if (width * (height + 1) <= Long.SIZE){
+            return new LongBitBoard(width, height, connect);
+        }
+        return new WideBitBoard(width, height, connect);
+    }
+
+//Accessors
+    // Converts a colour character to the index used for each player. As in Board, anything that is not red is treated as yellow.
+    public static int colourIndex(char colour){
+        if (colour == 'r'){
+            return 0;
+        }
+        return 1;
+    }
+
+    public int getWidth(){
+        return width;
+    }
+
+    // The number of rows on the board. This is not called getHeight as that gives the number of counters in a column.
+    public int getBoardHeight(){
+        return height;
+    }
+
+    public int getConnect(){
+        return connect;
+    }
+
+    // Returns true if the other board is the same size and needs the same number of counters in a row to win.
+    public boolean sameGeometry(BitBoard other){
+        return width == other.width && height == other.height && connect == other.connect;
+    }
+
+    public int getHeight(int column){
+        return heights[column];
+    }
+
+    public int getMoveCount(){
+        return moveCount;
+    }
+
+    // Returns the column of the move with the given index, where move 0 is the first played.
+    public int getMove(int index){
+        return moves[index];
+    }
+
+    public long getHash(){
+        return hash;
+    }
+
+    public long getMirrorHash(){
+        return mirrorHash;
+    }
+
+    // The same for a position and its mirror image, so that both can be looked up as one (see mirrorHash).
+    public long getCanonicalHash(){
+        return Math.min(hash, mirrorHash);
+    }
+
+    /* Returns true if the canonical hash is the hash of the mirror image, in which case a move stored under it is a move on the mirrored board
+        and must be flipped with mirrorColumn before it is played here. */
+    public boolean isMirrored(){
+        return mirrorHash < hash;
+    }
+
+    // The column on the other side of the board, in the same place as the given one when the board is mirrored.
+    public int mirrorColumn(int column){
+        return width - 1 - column;
+    }
+
+    /* Returns true if the position is the same as its mirror image, such as the empty board. Every move then has a mirror image that is just
+        as good, so only the moves in the left half (and the centre) need to be searched. */
+    public boolean isSymmetric(){
+        for (int col = 0; col < width / 2; col++){
+            int mirror = width - 1 - col;
+            if (heights[col] != heights[mirror]){
+                return false;
+            }
+            for (int row = 0; row < heights[col]; row++){
+                if (colourAt(squareIndex(col, row)) != colourAt(squareIndex(mirror, row))){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Returns the index of the bit for the square in the given column and row, where row 0 is the bottom of the board.
+    public int squareIndex(int column, int row){
+        return column * columnBits + row;
+    }
+
+    // The number of bit indexes used by the board, including the empty bit on top of each column. Every squareIndex is below this.
+    public int getSquareCount(){
+        return width * columnBits;
+    }
+
+    /* Returns the counter in the given square. To match Board, row 0 is the top of the board here, so the row has to be flipped before
+        looking up the bit. An empty square returns the null character, which is what an unset entry in Board's char array holds. */
+    public char getSquare(int row, int column){
+        int colour = colourAt(squareIndex(column, height - 1 - row));
+        if (colour == 0){
+            return 'r';
+        }
+        if (colour == 1){
+            return 'y';
+        }
+        return '\0';
+    }
+
+    public boolean canPlay(int column){
+        return heights[column] < height;
+    }
+
+    public boolean isFull(){
+        return moveCount == moves.length;
+    }
+
+//Methods
+    /* Play drops a counter into the given column and returns the row (counted from the bottom) that it landed in. The caller must check
+        canPlay first, as playing into a full column would spill the counter into the next column. */
+    public final int play(int column, char colour){
+        int row = heights[column];
+        int index = colourIndex(colour);
+        int square = column * columnBits + row;
+        setSquare(index, square);
+        hash ^= ZOBRIST[index][square];
+        mirrorHash ^= ZOBRIST[index][(width - 1 - column) * columnBits + row];
+        heights[column] = row + 1;
+        moves[moveCount] = column;
+        moveCount++;
+        return row;
+    }
+
+    /* Undo takes back the last move played. The colour does not need to be passed in as the counter is removed from whichever player has a 
+        counter in that square. */
+    public final void undo(){
+        moveCount--;
+        int column = moves[moveCount];
+        heights[column]--;
+        int row = heights[column];
+        int square = column * columnBits + row;
+        int index = clearSquare(square);
+        hash ^= ZOBRIST[index][square];
+        mirrorHash ^= ZOBRIST[index][(width - 1 - column) * columnBits + row];
+    }
+
+    // Returns a new board of the same size holding the same position.
+    public BitBoard copy(){
+        BitBoard board = create(width, height, connect);
+        board.copyBoard(this);
+        return board;
+    }
+
+    // Copies another bitboard of the same size into this one. Only a handful of numbers are copied, compared to every square in Board's array.
+    public final void copyBoard(BitBoard boardToCopy){
+        if (!sameGeometry(boardToCopy)){
+            throw new IllegalArgumentException("Cannot copy a " + boardToCopy.width + "x" + boardToCopy.height + " board into a " 
+                + width + "x" + height + " board");
+        }
+        copyDiscs(boardToCopy);
+        System.arraycopy(boardToCopy.heights, 0, heights, 0, width);
+        System.arraycopy(boardToCopy.moves, 0, moves, 0, boardToCopy.moveCount);
+        moveCount = boardToCopy.moveCount;
+        hash = boardToCopy.hash;
+        mirrorHash = boardToCopy.mirrorHash;
+    }
+
+    // Returns true if the given colour has a line of connect counters in any direction.
+    public abstract boolean hasWon(char colour);
+
+    // Returns the length of the longest line of counters the given colour has, up to a maximum of connect.
+    public abstract int longestRun(char colour);
+
+    // Sets the bit for the square for the player with the given colour index.
+    protected abstract void setSquare(int colour, int square);
+
+    // Clears the bit for the square and returns the colour index of the player whose counter it was.
+    protected abstract int clearSquare(int square);
+
+    // Returns the colour index of the counter in the square, or -1 if it is empty.
+    protected abstract int colourAt(int square);
+
+    // Copies the counters from another board of the same size and the same version.
+    protected abstract void copyDiscs(BitBoard boardToCopy);
+
+    /* The random numbers for the Zobrist hash. A fixed seed is used so that hashes are the same every time the program is run, which keeps
+        searches repeatable. There is a number for every square of the largest board, and smaller boards use the first few. */
+    private static long[][] zobristKeys(int squares){
+        SplittableRandom random = new SplittableRandom(0x5eed);
+        long[][] keys = new long[2][squares];
+        for (int colour = 0; colour < 2; colour++){
+            for (int square = 0; square < squares; square++){
+                keys[colour][square] = random.nextLong();
+            }
+        }
+        return keys;
+    }
+}
@@ -1,5 +1,3 @@
-import java.lang.Math;
-
 /* The board class is responsible for interactions with the board. Anything involving the data of the board is contained within this 
 class, so that although it a longer class than others it is well encapsulated.*/
 
@@ -7,236 +5,160 @@ public class Board {
     
     //Fields
 
-    // The board field is a two dimensional array that forms the board.
-    public char[][] boardArray;
-
-    /* The board height and board with are stored as fields, so that there is a single point of reference for other methods involving these numbers. This reduces the chance
-        that a value outside the bounds of the array will be accessed. As neither should be altered during the game they are constants, using the static final method. Static 
-        means that they will be the same for all Board objects, while final makes them so they cannot be changed. The board width and height are set to the standard values 
-        for a connect 4 board. If the player wants to adjust the size of the board, these are the only values that need to be changed. 
-        Note: changing the width to be greater than 10 may cause some issues with column labels (see Display)*/ 
-    private static final int BOARDWIDTH = 7;
-    private static final int BOARDHEIGHT = 6;
+    /* The squares field holds the board one square per counter, going along each row from the top left, so the counter at a given row and
+        column is in square row * boardWidth + column. It is private, so the only way to change the board is makeMove, which keeps it in step
+        with the bitboard. */
+    private final char[] squares;
+
+    /* Every line on a board of this size (see WinningLines), which the line checks below scan instead of working out where the edges of the 
+        board are as they go. The lines are shared by every board of the same size. */
+    private final WinningLines lines;
+
+    /* The same position is also stored as a bitboard (see BitBoard). The squares are kept for the display and for the line checks below, but
+        win checks, copying and the computer player's search all use the bitboard as it is far quicker. Both are updated together by
+        makeMove. */
+    private final BitBoard bitBoard;
+
+    /* The board height and board width are stored as fields, so that there is a single point of reference for other methods involving these numbers. This reduces the chance
+        that a value outside the bounds of the array will be accessed. As neither should be altered during the game they are final, so they cannot be changed once the board 
+        is created. connect is the number of tokens in a row needed to win. The default constructor uses the standard values for a connect 4 board, and the other constructor 
+        allows any size of board (up to 15x15, see BitBoard) and any length of line to be used instead. */
+    private final int boardWidth;
+    private final int boardHeight;
+    private final int connect;
     
     //Constructor
     public Board(){
-        boardArray = new char[BOARDHEIGHT][BOARDWIDTH];
+        this(BitBoard.STANDARDWIDTH, BitBoard.STANDARDHEIGHT, BitBoard.STANDARDCONNECT);
+    }
+
+    public Board(int width, int height, int connect){
+        bitBoard = BitBoard.create(width, height, connect);
+        boardWidth = width;
+        boardHeight = height;
+        this.connect = connect;
+        squares = new char[boardWidth * boardHeight];
+        lines = WinningLines.of(boardWidth, boardHeight, connect);
     }
 
     //Methods
 
     //Accessors
-    /* BOARDHEIGHT and BOARDWIDTH are private values to stop other classes from altering them, to ensure they remain constant for the entire game. However in several areas the 
+    /* boardHeight, boardWidth and connect are private values to stop other classes from altering them, to ensure they remain constant for the entire game. However in several areas the 
         values are needed so the accessors allow the values to be accessed while preventing modification. */ 
     public int returnHeight(){
-        return BOARDHEIGHT;
+        return boardHeight;
     }
 
     public int returnWidth(){
-        return BOARDWIDTH;
+        return boardWidth;
+    }
+
+    public int returnConnect(){
+        return connect;
     }
     
     // return square allows other classes to easily check a single square on the board.
     public char returnSquare(int row, int column){
-        return boardArray[row][column];
+        return bitBoard.getSquare(row, column);
+    }
+
+    // Gives the computer player access to the bitboard so that it can search without going through the character array.
+    public BitBoard returnBitBoard(){
+        return bitBoard;
+    }
+
+    // Returns true if the column has room for another token.
+    public boolean canPlay(int column){
+        return bitBoard.canPlay(column);
     }
 
-    //This method takes in another board, and copies each element of the array to the current object to create a new copy.
+    // Returns the key of the position (see PositionKey), which identifies it without the board.
+    public PositionKey returnKey(){
+        return PositionKey.of(bitBoard);
+    }
+
+    /* This method takes in another board and copies it to the current object to create a new copy. The squares are copied in one go
+        with arraycopy rather than square by square, and the bitboard copy is only a few numbers. Both boards must be the same size. */
     public void copyBoard(Board boardToCopy){
-        for(int row = 0; row<BOARDHEIGHT; row++){
-            for(int column = 0; column<BOARDWIDTH; column++){
-                this.boardArray[row][column] = boardToCopy.boardArray[row][column];
-            }
-        }
+        bitBoard.copyBoard(boardToCopy.bitBoard);
+        System.arraycopy(boardToCopy.squares, 0, this.squares, 0, squares.length);
     }
+    // Returns a copy of the board as a two dimensional array for the display, so that the board cannot be changed from outside.
     public char[][] returnBoardArray(){
-        return boardArray;
+        char[][] copy = new char[boardHeight][boardWidth];
+        for(int row = 0; row<boardHeight; row++){
+            System.arraycopy(squares, row * boardWidth, copy[row], 0, boardWidth);
+        }
+        return copy;
     }
 
-    /* If there exists a sequence of four tokens in a row of a single type (r or y), a player has won. The method returns true to indicate this. The check is greater than or
-        equal to 4 to cover the case where a player places a counter that connects two sub-lists to create a sequence greater than 4. */
+    /* If there exists a sequence of connect tokens in a row of a single type (r or y), a player has won. The method returns true to indicate this. The check 
+        is done on the bitboard, which finds a line in every direction at once without scanning the array. A sequence longer than connect (where a player 
+        places a counter that connects two sub-lists) also contains a winning line so is still found. */
     public boolean checkWin(char player){
-        if (getMaxScore(player) >= 4){
-            return true;
-        }
-        else{
-            return false;
-        }
+        return bitBoard.hasWon(player);
     }
 
-    /* The getMaxScore method returns the greatest sequence on the board for the given player.*/
+    /* The getMaxScore method returns the greatest sequence on the board for the given player, looking along every row, column and diagonal
+        (see WinningLines). A sequence of connect or more is a win, so no further checks are needed once one is found and connect is returned. */
     public int getMaxScore(char player){
-        
-        // Score keeps track of the largest sequence seen so far.
-        int score = 0;
-
-        /* The loop iterates over each row of the board and looks for the greatest horizontal sequence. If a row contains four in a row then no further checks are needed and the
-        four is returned.*/
-        for (int row=0; row<BOARDHEIGHT; row++){
-            score = Math.max(checkHorizontal(player, row), score);
-            if (score >= 4){
-                return score;
-            }
-        }
-
-        /* The loop iterates over each column of the board and looks for the greatest vertical sequence. If a column contains four in a row then no further checks are needed and the
-            four is returned.*/
-        for (int column=0; column<BOARDWIDTH; column++){
-            score = Math.max(checkVertical(player, column), score);
-            if (score >= 4){
-                return score;
-            }
-        }
-
-        /*The loop iterates over each column of the board and looks for the greatest diagonal sequence going right and down. The check uses downwards diagonals as the check starts from
-        the top and moves down, so checking down is more efficient than checking up. */
-        for (int row=0; row<BOARDWIDTH; row++){
-            score = Math.max(checkDiagonalRight(player, row), score);
-            if (score >= 4){
-                return score;
-            }
-        }
-
-        /*The loop iterates over each column of the board and looks for the greatest diagonal sequence going right and up. */
-        for (int row=0; row<BOARDWIDTH; row++){
-            score = Math.max(checkDiagonalLeft(player, row), score);
-            if (score >= 4){
-                return score;
-            }
-        }
+        return lines.longestRun(squares, player);
+    }
 
-        // Score is returned at the end in case there are no tokens on the board and no score is greater than 0. Under normal operation this should not happen.
-        return score;        
-    }
-
-    public int checkHorizontal(char player, int row){  
-        int count = 0;
-        // For each row, if the next square is also the player's then one is added to the count.
-        for(int col=0; col<BOARDWIDTH; col++){
-            
-            if(boardArray[row][col] == player){
-                count = count + 1;
-                
-                // If the count is greater than 4 then no further checks are needed and the count is returned.
-                if (count >= 4){
-                    return count;
-                }
-            }
-            // If the next square is not the player's, then the count is reset.
-            else{
-                count = 0;
-            }
-        }
-        /* The maximum count is returned. The count, rather than just whether a player has won or not, is returned to allow the computer 
-        player to evalutate boards before the end has been reached. */
-        return count;
+    /* The line checks below return the greatest sequence along part of the board, capped at connect in the same way. The count, rather than
+        just whether a player has won or not, is returned to allow the computer player to evalutate boards before the end has been reached. */
+    public int checkHorizontal(char player, int row){
+        return lines.longestRun(squares, player, WinningLines.HORIZONTAL, row);
     }
-    
-    // Check vertical works the same as check horiontal, but looks up each column rather than across each row. 
+
+    // Check vertical works the same as check horizontal, but looks down a column rather than across a row.
     public int checkVertical(char player, int col){
-        int count = 0;
-        for(int row=0; row<BOARDHEIGHT; row++){
-            if(boardArray[row][col] == player){
-                count = count + 1;
-                if (count >= 4){
-                    return count;
-                }
-            }
-            else{
-                count = 0;
-            }
-        }
-        return count;
+        return lines.longestRun(squares, player, WinningLines.VERTICAL, col);
     }
 
-    /*Check diagonal works similarly to check horizontal and vertical. For each square, if it and the four squares above and to the 
-        right are of the same type then a count of 4 is returned.*/
+    /* Check diagonal right looks down and to the right along the diagonals that start in the given row: every diagonal starting in the top
+        row, or the one starting at the left edge for the rows below. Each diagonal is a line in the table that ends at the edge of the board,
+        so there is no need to catch the scan running off the array, and a sequence never carries on from one diagonal into the next. */
     public int checkDiagonalRight(char player, int row){
-        int count = 0;
-        for(int col=0; col<BOARDWIDTH; col++){
-            for (int k=0; k<4; k++){
-                try{
-                    if(boardArray[row+k][col+k] == player){
-                        count++;
-                        if(count >= 4){
-                            return count;
-                        }
-                    }
-                    else{
-                        count = 0;
-                    }
-                }
-                /* If moving four up or to the right of the initial square moves past the array bounds, the exception is caught and the 
-                    loop moves to the next square. */
-                catch(ArrayIndexOutOfBoundsException e){
-                    count = 0;
-                    continue;
-                }
-            } 
-        }
-        return count;
-    } 
+        return lines.longestRun(squares, player, WinningLines.DIAGONALRIGHT, row);
+    }
 
-    // Left works the same as right but substracting from the column number, so moves left.
+    // Left works the same as right but looks down and to the left, along the diagonals starting in the given row or at the right edge.
     public int checkDiagonalLeft(char player, int row){
-        int count = 0;
-        for(int col=0; col<BOARDWIDTH; col++){
-            for (int k=0; k<4; k++){
-                try{
-                    if(boardArray[row+k][col-k] == player){
-                        count++;
-                        if(count >= 4){
-                            return count;
-                        }
-                    }
-                    else{
-                        count = 0;
-                    }
-                }
-                catch(ArrayIndexOutOfBoundsException e){
-                    count = 0;
-                    continue;
-                }
-            } 
+        return lines.longestRun(squares, player, WinningLines.DIAGONALLEFT, row);
+    }
+
+
+    /* Make move places a token in the lowest empty square of the specified column. The bitboard keeps track of how full each column is, so there is
+        no need to search down the rows. If the column is already full then the move is ignored. Anything other than 'r' is placed as a yellow token.
+        The row the token landed in is returned (with row 0 at the top, as in the board array), or -1 if the column was full, so that the caller 
+        can check for a win around the new token with checkWin(row, column).*/
+    public int makeMove(int position, char player){
+        if (!bitBoard.canPlay(position)){
+            return -1;
+        }
+        char colour = 'y';
+        if (player == 'r'){
+            colour = 'r';
         }
-        return count;
-    } 
-
-
-    /* Make move places a token by starting from the top row in the specified column, then moving down the rows until the first
-        available slot is reached.*/
-    public void makeMove(int position, char player){
-		if(player == 'r'){
-			for(int row=BOARDHEIGHT-1; row>=0; row--){
-                if(boardArray[row][position] == 'y'){
-                    continue;
-                }
-                else if(boardArray[row][position] != 'r'){
-                    boardArray[row][position] = 'r';
-                    return;
-                }
-			}
-		}
-		else{
-			for(int row=BOARDHEIGHT-1; row>=0; row--){
-                if(boardArray[row][position] == 'r'){
-                    continue;
-                }
-                else if(boardArray[row][position] != 'y'){
-                    boardArray[row][position] = 'y';				
-                    return;
-                } 
-            }
-		}
+        int row = boardHeight - 1 - bitBoard.play(position, colour);
+        squares[row * boardWidth + position] = colour;
+        return row;
 	}
 
-    public boolean isBoardFull(){
-        Boolean full = true;
-        for (int col = 0; col<BOARDWIDTH; col++){
-            if (boardArray[0][col] != 'y' && boardArray[0][col] != 'r'){
-                full = false;
-            }
+    /* This version of checkWin only looks at the token in the given square, which should be the last one played. A new token can only complete a 
+        line that passes through it, so only the four lines through that square need checking rather than the whole board. The lines through 
+        each square are kept in the table (see WinningLines.runThrough), so the edges of the board never need checking. */
+    public boolean checkWin(int row, int column){
+        int square = row * boardWidth + column;
+        if (squares[square] != 'r' && squares[square] != 'y'){
+            return false;
         }
-        return full;
+        return lines.runThrough(squares, square) >= connect;
+    }
+
+    public boolean isBoardFull(){
+        return bitBoard.isFull();
     }
 }
\ No newline at end of file
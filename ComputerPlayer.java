@@ -1,113 +1,249 @@
-/* ComputerPlayer is responsible for generating the computer player's move. The primary responsibility of the class is to carry out a 
-    minimax algorithm to find the route through the tree that results in the best outcome for the computer after four moves (the size 
-    of the tree).*/
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/* ComputerPlayer is responsible for generating the computer player's move. The search for the best move is carried out by a search engine
+    (see SearchEngine), which the computer player holds and asks for a move each turn. By default this is the original minimax search over a
+    decision tree (TreeSearch), but a different engine can be passed in to the constructor, for example to compare two engines.
+    
+    After every move the computer player collects the statistics for the search (see SearchStatistics) and passes them to any listeners 
+    that have been added, so that the cost of each move can be logged or monitored.
+
+    The computer player can also ponder: think on the opponent's time. Once it has chosen a move, it guesses the opponent's reply (the second
+    move of the engine's principal variation) and carries on searching the position after that reply on a background thread while the 
+    opponent decides. When getMove is next called the ponder is stopped. If the opponent played the predicted move and the ponder had already
+    finished, its move is played straight away. Otherwise the position is searched as normal, but the transposition table is already full of
+    the positions the ponder looked at, so with an engine that has a table (AlphaBetaSearch or ParallelSearch) the search is much quicker. 
+    The engine is only ever used by one thread at a time: the ponder always stops before the next search starts.*/
 
 public class ComputerPlayer implements Player{
     
-    /* With the current game, the computer always goes second and takes the 'y' tokens. This is therefore set as a static field for the 
-        class. Should the option be added to allow the player to select a token and whether to go first or section, this would have to 
-        be changed.*/
-    private static final char colour = 'y';
+    /* In the interactive game the computer always goes second and takes the 'y' tokens, which is the default. The colour can be set when 
+        the player is created so that two computer players can play each other (see MatchRunner). It is final as it should not change during
+        a game.*/
+    private final char colour;
+
+    // The engine used to search for moves. This is set once when the player is created and should not change during a game.
+    private final SearchEngine engine;
 
-    // ComputerPlayer's only field is constant, so the constructor is blank.
+    /* The listeners told about each move. Listeners may be added while another thread is asking for a move, so a copy-on-write list is used,
+        which lets getMove go through the listeners without locking. lastStatistics is the statistics for the last move. */
+    private final List<SearchListener> listeners;
+    private volatile SearchStatistics lastStatistics;
+
+    /* The thread the ponder runs on, which is only created once pondering is turned on. ponderTask is the running ponder (or null), and
+        ponderHash and ponderMoves are the hash and number of counters of the position it is searching, to check whether the opponent played
+        the predicted move. ponderHits counts the moves that were taken straight from a finished ponder. */
+    private boolean pondering;
+    private ExecutorService ponderThread;
+    private Future<Integer> ponderTask;
+    private long ponderHash;
+    private int ponderMoves;
+    private long ponderHits;
+
+    // The default constructor uses the original decision tree search.
     public ComputerPlayer(){
+        this(new TreeSearch());
+    }
+
+    public ComputerPlayer(SearchEngine engine){
+        this(engine, 'y');
     }
 
+    public ComputerPlayer(SearchEngine engine, char colour){
+        this.engine = engine;
+        this.colour = colour;
+        this.listeners = new CopyOnWriteArrayList<SearchListener>();
+    }
+
+    /* The search is timed, and once it has finished its statistics are put together and given to each listener before the move is 
+        returned. */
     @Override
     public int getMove(Board originalBoard){
-        
-        // A root node is created for the decision tree. The node is defined in a seperate class.
-        Node root = new Node(0, 'r');
-        
-        /* Setting the nodeBoard to the originalBoard directly would not create a new object, but a pointer to the original object. Therefore
-            each value of the array in the original board is copied over to the new board array.*/
-        root.getNodeBoard().copyBoard(originalBoard);
+        int moveNumber = originalBoard.returnBitBoard().getMoveCount();
+        long start = System.nanoTime();
+        int move = ponderResult(originalBoard.returnBitBoard());
+        if (move < 0){
+            move = engine.findMove(originalBoard, colour);
+        }
+        else{
+            ponderHits++;
+        }
 
+        /* An engine that is stopped before it has looked at any moves returns -1 (see MonteCarloSearch.stop). That is fine for a ponder,
+            which is thrown away, but a move has to be played, so the first column with room is played instead. */
+        if (move < 0 || move >= originalBoard.returnWidth() || !originalBoard.canPlay(move)){
+            move = firstLegalMove(originalBoard);
+        }
+        long elapsed = System.nanoTime() - start;
 
-        DecisionTree tree = new DecisionTree(root);
-    
+        SearchStatistics statistics = SearchStatistics.fromEngine(engine, colour, moveNumber, move, elapsed);
+        lastStatistics = statistics;
+        for (SearchListener listener : listeners){
+            listener.searchFinished(statistics);
+        }
+        if (pondering){
+            startPondering(originalBoard, move);
+        }
+        return move;
+    }
+
+    /* Turns pondering on or off (see above). It is off by default, as the background thread takes up a processor while the opponent is 
+        thinking. Turning it off stops any ponder that is running and the thread it ran on, and turning it on again starts a new thread. */
+    public synchronized void setPondering(boolean ponder){
+        if (!ponder){
+            stopPondering();
+            if (ponderThread != null){
+                ponderThread.shutdown();
+                ponderThread = null;
+            }
+        }
+        else if (ponderThread == null){
+            ponderThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.pondering = ponder;
+    }
 
-        /* A move by the computer is generated by the use of the minimax algorithm. This has been abstracted to its own method. 
-        The algorithm returns the move the computer should make that will result in the best leaf node of the tree (note that the tree 
-        does not cover the entire game, but only up to the specified depth). The function returns a tuple with the column that the computer 
-        should place its counter in. The tuple is defined as a seperate class, and the move is retrieved by calling getMove(). The move is
-        then returned by the method. The principle source for the general idea of the miniMax algorithm was 
-        https://medium.com/analytics-vidhya/artificial-intelligence-at-play-connect-four-minimax-algorithm-explained-3b5fc32e4a4f, but all code is my own. */
-        return miniMax(tree.returnRoot(), true).getMove();
-        
-    }
-
-    /* miniMax implements the mini-max algorithm to get the best move. The method takes a node as input. If the node is
-        a terminal node, it simulates  
-        returns a Tuple of the value of the node and the move made. It takes in the node to be explored and a boolean saying whether the value should be 
-        maximised or minimised. */
-    private Tuple miniMax(Node node, boolean computer){
-        /* This is the base case of the method. If the end of the tree has been reached the computer evalutes the board stored by that node, setting the 
-            value of the node to be the score returned.*/
-        
-            if (node.isLeaf()){
-                int value = evaluateBoard(node.getNodeBoard(), node.getPlayer());
-                node.setValue(value);
-                // A tuple containing the move of the node and the score of the board with that move is returned.
-                return new Tuple(node.getMove(), node.getValue());
-        }
-
-        /* If the node is not a leaf, then the score of the node is either the maximum or minimum of its childnodes (depending on whether the player is 
-            maximising or minimising). This is retreieved by calling the method recursively on each child node until the leaf nodes are reached. */
-        else {
-            
-            /* For the maximising player, the node score is highest score of the childnodes (where each childNode represents a valid move). */
-            if (computer){
-                /* The score is initially set at a value lower than any possible board score to ensure that at least one node will be higher. */ 
-                Tuple score = new Tuple(0, -100000);
-                
-                /* miniMax is called on each childnode. If the returned value is higher than the score value, then score is set to the value of the node. 
-                    This means that to set the value of a node the search process must first explore down to the bottom of the tree (depth-first) */
-                for (Node childNode : node.getChildren()){
-                    Tuple nodeScore = miniMax(childNode, !computer);
-                    if (nodeScore.getValue() > score.getValue()){
-                        score = nodeScore;
-                    }
-                }
-                return score;
+    /* Stops the ponder, if there is one, and waits for it to finish. The engine may have missed the request if its search had not started
+        yet (see AlphaBetaSearch.stop), so the request is repeated until the ponder has finished. The games call
+        close when they end, which does this and stops the thread as well, so the background thread is not left searching. */
+    public synchronized void stopPondering(){
+        if (ponderTask == null){
+            return;
+        }
+        while (!ponderTask.isDone()){
+            engine.stop();
+            try{
+                ponderTask.get(1, TimeUnit.MILLISECONDS);
+            }
+            catch(TimeoutException e){
+                // Still searching, so ask again.
             }
-            
-            /* For the minimising player, the node score is lowest score of the childnodes (where each childnode represents a valid move). */
-            else{
-                Tuple score = new Tuple(0, 100000);
-                computer = !computer;
-                for (Node childNode : node.getChildren()){
-                    Tuple nodeScore = miniMax(childNode, computer);
-                    if (nodeScore.getValue() < score.getValue()){
-                        score = nodeScore;
-                    }
-                }
-                return score;
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch(ExecutionException e){
+                throw new IllegalStateException("The ponder search failed", e.getCause());
             }
         }
+        ponderTask = null;
     }
 
-    /* This method evaluates the board by looking at the maximum score for each player. 
-        The scoring of the board uses the same method that is used to check for a win, which has been abstracted into the board class. 
-        The weightings of the score are adjusted to reflect their proportional importance within the game, although the exact values are abitrary.*/ 
-    private int evaluateBoard(Board board, char player){
-        int weightedScore = 0;
+    public void addListener(SearchListener listener){
+        listeners.add(listener);
+    }
 
-        //getMaxScore returns the longest open sequence of characters. row.e. ryyy is a score of 3 for y, but ryyyr is closed so has a score of 1
-        int score = board.getMaxScore(player);
-        if (score == 1){
-            weightedScore = 1;
+    public void removeListener(SearchListener listener){
+        listeners.remove(listener);
+    }
+
+    public synchronized boolean isPondering(){
+        return pondering;
+    }
+
+    // The number of moves played straight from a finished ponder, without searching.
+    public synchronized long returnPonderHits(){
+        return ponderHits;
+    }
+
+    // The statistics for the last move, or null if the player has not moved yet.
+    public SearchStatistics returnLastStatistics(){
+        return lastStatistics;
+    }
+
+    public SearchEngine returnEngine(){
+        return engine;
+    }
+
+    /* The number of positions the engine visited while finding the last move. This is taken from the statistics rather than the engine, as
+        the engine may already be pondering on another thread. */
+    public long returnNodeCount(){
+        SearchStatistics statistics = lastStatistics;
+        if (statistics == null){
+            return 0;
+        }
+        return statistics.returnNodes();
+    }
+
+    /* Starts pondering on the position after the move just chosen and the reply the engine expects. If the engine has no principal
+        variation to take the reply from, or the game is over, there is nothing to ponder. The ponder works on its own copy of the board. */
+    private synchronized void startPondering(Board originalBoard, int move){
+        int[] line = engine.returnPrincipalVariation();
+        if (line.length < 2 || line[0] != move){
+            return;
+        }
+        Board board = new Board(originalBoard.returnWidth(), originalBoard.returnHeight(), originalBoard.returnConnect());
+        board.copyBoard(originalBoard);
+        int row = board.makeMove(move, colour);
+        if (row < 0 || board.checkWin(row, move) || board.isBoardFull()){
+            return;
+        }
+        row = board.makeMove(line[1], DepthFirstSearch.opponentOf(colour));
+        if (row < 0 || board.checkWin(row, line[1]) || board.isBoardFull()){
+            return;
+        }
+        ponderHash = board.returnBitBoard().getHash();
+        ponderMoves = board.returnBitBoard().getMoveCount();
+        ponderTask = ponderThread.submit(() -> engine.findMove(board, colour));
+    }
+
+    // The leftmost column that still has room, for when the engine has no move to give (see getMove).
+    private static int firstLegalMove(Board board){
+        for (int col = 0; col < board.returnWidth(); col++){
+            if (board.canPlay(col)){
+                return col;
+            }
         }
-        if (score == 2){
-            weightedScore = 3;
+        return -1;
+    }
+
+    /* Stops the ponder and returns its move if it can be played: the ponder must have finished by itself, before being stopped, and the 
+        opponent must have played the predicted move. Otherwise -1 is returned and the position needs searching. */
+    private synchronized int ponderResult(BitBoard position){
+        if (ponderTask == null){
+            return -1;
         }
-        if (score == 3){
-            weightedScore = 100;
+        boolean finished = ponderTask.isDone();
+        boolean predicted = position.getHash() == ponderHash && position.getMoveCount() == ponderMoves;
+        Future<Integer> task = ponderTask;
+        stopPondering();
+        if (!finished || !predicted){
+            return -1;
         }
-        if (score >= 4){
-            weightedScore = 1000;
+        try{
+            return task.get();
         }
-        return weightedScore;
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+        catch(ExecutionException e){
+            throw new IllegalStateException("The ponder search failed", e.getCause());
+        }
+    }
+
+    /* Stops any ponder and its thread, and then the engine's threads, once the game is over. The ponder must be stopped first, as it may still
+        be using the engine. */
+    @Override
+    public synchronized void close(){
+        setPondering(false);
+        engine.close();
+    }
+
+    // Computer players are named after their engine, so that records show which engine played.
+    @Override
+    public String returnName(){
+        return engine.getClass().getSimpleName();
     }
 
     @Override
@@ -115,6 +251,3 @@ public class ComputerPlayer implements Player{
         return colour;
     }
 }    
-
-
-    
\ No newline at end of file
@@ -11,12 +11,16 @@ public class DecisionTree{
 
 //Constructor
     public DecisionTree(Node parent){
+        this(parent, 4);
+    }
+
+    public DecisionTree(Node parent, int depth){
         this.root = parent;
                 
         /* A tree is generated of all possible moves the computer could make, and all subsequent responses by the player. 
                 The first parameter is the root node, the second is the depth of the tree, and the third is whether the move is by 
                 the computer or the player (this will switch between the two as the tree is recursively generated.) */
-        generateTree(root, 4, 'y');
+        generateTree(root, depth, 'y');
     }
 
 //Accessor
@@ -40,20 +44,22 @@ public class DecisionTree{
 
             /* A new node is created, where col is the column (and therefore move) it represents. The
              node is then added to the parent node as a child. */
-            Node node = new Node(col, player);
+            Node node = new Node(col, player, parent.getNodeBoard());
             parent.addChildNode(node);
 
             /* A new board is created to store the state of the board after the move represented by the node. This state of
                 the parent boardArray is copied over to newBoard. The details of this are abstracted into the Board class. */
             node.getNodeBoard().copyBoard(parent.getNodeBoard());
             
-            /* The move represented by the node is played on the board*/
-            node.getNodeBoard().makeMove(node.getMove(), player);
+            /* The move represented by the node is played on the board. The row it lands in is kept so the win check only needs to look
+                at the lines through the new counter.*/
+            int row = node.getNodeBoard().makeMove(node.getMove(), player);
         
 
-            /* If the specified depth has not been reached and no player has reached four in a row yet, the method is called again 
-                to add the next layer to each node. The depth is reduced by one each count to limit the size of the tree. */
-            if (depth > 0 && node.getNodeBoard().getMaxScore(player) != 4){
+            /* If the specified depth has not been reached and no player has made a winning line yet, the method is called again 
+                to add the next layer to each node. The depth is reduced by one each count to limit the size of the tree. As the tree stops
+                at any win, only the move just played can have made a winning line. */
+            if (depth > 0 && !node.getNodeBoard().checkWin(row, node.getMove())){
                 // The player char switches between y and r
                 if (player == 'y'){
                     player = 'r';
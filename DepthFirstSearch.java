@@ -0,0 +1,161 @@
+/* DepthFirstSearch is a minimax search that does not build a decision tree. Instead of creating a node and a board for every possible move
+    before searching, moves are generated as the search reaches them: each move is played on a single bitboard, searched, and then taken 
+    back again with undo before the next move is tried. Only the current line of play is ever held in memory, so memory use grows with the
+    depth rather than with the size of the tree, and the search can go much deeper than the decision tree (see TreeSearch). */
+
+public class DepthFirstSearch implements SearchEngine {
+
+//Fields
+    /* Scores for the end of the game. A win is worth more than any board evaluation, and the number of moves played is taken off so that a 
+        quicker win scores higher than a slower one (and a slower loss scores higher than a quicker one). */
+    public static final int WINSCORE = 100000;
+
+    // The number of moves ahead the search looks. This is set when the engine is created.
+    private final int depth;
+
+    // The evaluator used to score boards at the end of the search (see Evaluator).
+    private final Evaluator evaluator;
+
+    // The number of positions visited by the last search, which is useful for comparing engines, and how many of them were evaluated.
+    private long nodeCount;
+    private long leafCount;
+
+//Constructor
+    // By default boards are scored by the longest line each player has (see RunLengthEvaluator).
+    public DepthFirstSearch(int depth){
+        this(depth, new RunLengthEvaluator());
+    }
+
+    public DepthFirstSearch(int depth, Evaluator evaluator){
+        if (depth < 1){
+            throw new IllegalArgumentException("The search depth must be at least 1");
+        }
+        this.depth = depth;
+        this.evaluator = evaluator;
+    }
+
+//Accessors
+    public int returnDepth(){
+        return depth;
+    }
+
+    @Override
+    public long returnNodeCount(){
+        return nodeCount;
+    }
+
+    @Override
+    public long returnLeafCount(){
+        return leafCount;
+    }
+
+    // The search always goes to the full depth.
+    @Override
+    public int returnDepthReached(){
+        return depth;
+    }
+
+//Methods
+    @Override
+    public int findMove(Board originalBoard, char colour){
+
+        // The search plays moves on its own copy of the board so that the board passed in is not changed.
+        BitBoard board = originalBoard.returnBitBoard().copy();
+        evaluator.reset(board);
+        nodeCount = 0;
+        leafCount = 0;
+
+        char opponent = opponentOf(colour);
+        int bestMove = -1;
+        int bestScore = Integer.MIN_VALUE;
+
+        /* Each possible move is tried at the top level so that the move, as well as the score, is known. Moves are tried from left to right and
+            only a strictly better score replaces the best move, so ties go to the leftmost column as in the decision tree search. */
+        for (int col = 0; col < board.getWidth(); col++){
+            if (!board.canPlay(col)){
+                continue;
+            }
+            int row = board.play(col, colour);
+            evaluator.play(col, row, colour);
+            int score;
+            if (board.hasWon(colour)){
+                score = WINSCORE - board.getMoveCount();
+            }
+            else{
+                score = miniMax(board, depth - 1, opponent, colour);
+            }
+            board.undo();
+            evaluator.undo(col, row, colour);
+
+            if (score > bestScore){
+                bestScore = score;
+                bestMove = col;
+            }
+        }
+        return bestMove;
+    }
+
+    /* miniMax returns the score of the board for the computer, with the given player about to move. If it is the computer's turn the score is 
+        the highest score of the possible moves, and otherwise it is the lowest. Each move is played on the board, scored by calling the method 
+        recursively, and then undone, so the board is back to how it was when the method returns. */
+    private int miniMax(BitBoard board, int depth, char player, char computer){
+        nodeCount++;
+
+        // If the board is full no more moves can be played and the game is a draw.
+        if (board.isFull()){
+            return 0;
+        }
+
+        // The base case of the method. When the depth runs out the board is evaluated instead of being searched further.
+        if (depth == 0){
+            leafCount++;
+            return evaluator.evaluate(board, computer);
+        }
+
+        boolean maximising = player == computer;
+        int score;
+        if (maximising){
+            score = Integer.MIN_VALUE;
+        }
+        else{
+            score = Integer.MAX_VALUE;
+        }
+
+        for (int col = 0; col < board.getWidth(); col++){
+            if (!board.canPlay(col)){
+                continue;
+            }
+            int row = board.play(col, player);
+            evaluator.play(col, row, player);
+            int moveScore;
+
+            // A winning move ends the game, so there is nothing more to search below it.
+            if (board.hasWon(player)){
+                moveScore = WINSCORE - board.getMoveCount();
+                if (!maximising){
+                    moveScore = -moveScore;
+                }
+            }
+            else{
+                moveScore = miniMax(board, depth - 1, opponentOf(player), computer);
+            }
+            board.undo();
+            evaluator.undo(col, row, player);
+
+            if (maximising){
+                score = Math.max(score, moveScore);
+            }
+            else{
+                score = Math.min(score, moveScore);
+            }
+        }
+        return score;
+    }
+
+    public static char opponentOf(char colour){
+        if (colour == 'r'){
+            return 'y';
+        }
+        return 'r';
+    }
+}
@@ -9,9 +9,14 @@ public class Display {
     private final int width;
     private final int height;
 
+    /* The column numbers can be more than one digit long, so every square is made wide enough for the longest number. labelWidth is the number
+        of digits in the largest column number. */
+    private final int labelWidth;
+
     public Display(int width, int height){
         this.width = width;
         this.height = height;
+        this.labelWidth = String.valueOf(width).length();
     }
 
     /*printBoard has been altered to use the constant attributes of the class so the user can adjust the size of the board without having to adjust 
@@ -20,26 +25,33 @@ public class Display {
         for(int row=0; row<height; row++){
             for(int col=0; col<width; col++){
                 if(board[row][col] == 'r'){
-                    System.out.print("| r ");
+                    System.out.print("| r" + padding(labelWidth));
                 }
                 else if(board[row][col] == 'y'){
-                    System.out.print("| y ");
+                    System.out.print("| y" + padding(labelWidth));
                 }
                 else{
-                    System.out.print("|   ");
+                    System.out.print("|  " + padding(labelWidth));
                 }
             }
             System.out.println("|");
         }
 
         /* The column numbers are printed out at the end, after the board. This has also been made dynamic, so that the correct number of columns is printed out if the player 
-            varies the width of the board. Note: with widths greater than 10, the column values will start to misalign. */ 
+            varies the width of the board. Each number starts under the token in its column, and shorter numbers are padded out to the width of the longest so that the 
+            column values stay aligned on boards with more than 9 columns. */ 
         for (int col=0; col<width; col++){    
-            System.out.print("  " + (col+1) + " ");
+            String label = String.valueOf(col+1);
+            System.out.print("  " + label + padding(labelWidth - label.length() + 1));
         }
         System.out.println();
         
     }
+
+    // Returns the given number of spaces.
+    private static String padding(int spaces){
+        return " ".repeat(spaces);
+    }
 }
 
 
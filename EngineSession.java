@@ -0,0 +1,152 @@
+/* An EngineSession follows a single game with one AlphaBetaSearch, so that the work done for one move is kept for the next. Normally each
+    search starts from nothing apart from the transposition table, even though the position is only two moves on from the last one. Within a
+    session:
+
+    - The transposition table is kept, so the positions searched last move, including the whole subtree under the move that was actually
+      played, are found again rather than searched again.
+    - The killer moves and history scores are kept and moved along with the game (see AlphaBetaSearch.advance), so moves are well ordered
+      from the first search of each move rather than having to be learnt again.
+    - If the game follows the principal variation of the last search, the rest of it is searched first.
+
+    The session keeps its own board with the moves of the game on it. Moves can be passed in with play as they happen, or the session can be
+    used as the engine of a ComputerPlayer, in which case it works out which moves have been played since the last search by comparing its
+    board with the one it is given (see sync). The session only changes the order moves are searched in, which changes how long a search
+    takes but not the score it finds, apart from the effect of deeper entries left in the table (see AlphaBetaSearch). Call reset between 
+    games. */
+
+public class EngineSession implements SearchEngine {
+
+//Fields
+    private final AlphaBetaSearch search;
+    private BitBoard board;
+
+//Constructor
+    public EngineSession(AlphaBetaSearch search){
+        this(search, BitBoard.STANDARDWIDTH, BitBoard.STANDARDHEIGHT, BitBoard.STANDARDCONNECT);
+    }
+
+    public EngineSession(AlphaBetaSearch search, int width, int height, int connect){
+        this.search = search;
+        this.board = BitBoard.create(width, height, connect);
+        search.setKeepState(true);
+        search.newGame();
+    }
+
+//Accessors
+    public AlphaBetaSearch returnSearch(){
+        return search;
+    }
+
+    // The position the session is at. This should not be changed other than through the session.
+    public BitBoard returnBoard(){
+        return board;
+    }
+
+    @Override
+    public long returnNodeCount(){
+        return search.returnNodeCount();
+    }
+
+    @Override
+    public long returnLeafCount(){
+        return search.returnLeafCount();
+    }
+
+    @Override
+    public long returnCutoffCount(){
+        return search.returnCutoffCount();
+    }
+
+    @Override
+    public long returnTableHits(){
+        return search.returnTableHits();
+    }
+
+    @Override
+    public int returnDepthReached(){
+        return search.returnDepthReached();
+    }
+
+    @Override
+    public int[] returnPrincipalVariation(){
+        return search.returnPrincipalVariation();
+    }
+
+//Methods
+    // Plays a move in the game, by either player.
+    public void play(int column, char colour){
+        if (!board.canPlay(column)){
+            throw new IllegalArgumentException("Column " + column + " is full");
+        }
+        board.play(column, colour);
+        search.advance(column);
+    }
+
+    // Returns the best move for the given colour in the session's position.
+    public int findMove(char colour){
+        return search.findMove(board, colour);
+    }
+
+    // Brings the session up to the given board and returns the best move for the given colour.
+    @Override
+    public int findMove(Board originalBoard, char colour){
+        sync(originalBoard.returnBitBoard());
+        return findMove(colour);
+    }
+
+    @Override
+    public void stop(){
+        search.stop();
+    }
+
+    @Override
+    public void close(){
+        search.close();
+    }
+
+    /* Starts a new game: the board is emptied and everything kept from earlier searches is forgotten, including the transposition table, so
+        one game does not change the moves found in the next. */
+    public void reset(){
+        while (board.getMoveCount() > 0){
+            board.undo();
+        }
+        search.newGame();
+        if (search.returnTable() != null){
+            search.returnTable().clear();
+        }
+    }
+
+    /* Brings the session's board up to the given position. The moves both boards share from the start of the game are kept, any of the
+        session's moves after that are taken back, and the rest of the position's moves are played. Normally this just plays the moves since
+        the last search. A board of a different size, or one with none of the same moves, starts a new game. */
+    public void sync(BitBoard position){
+        if (!board.sameGeometry(position)){
+            board = BitBoard.create(position.getWidth(), position.getBoardHeight(), position.getConnect());
+            reset();
+        }
+
+        int shared = 0;
+        int limit = Math.min(board.getMoveCount(), position.getMoveCount());
+        while (shared < limit && board.getMove(shared) == position.getMove(shared)){
+            shared++;
+        }
+        if (shared == 0 && board.getMoveCount() > 0){
+            reset();
+        }
+
+        // Taking moves back cannot undo what advance did to the killers, so the principal variation is dropped but the rest is kept.
+        if (board.getMoveCount() > shared){
+            while (board.getMoveCount() > shared){
+                board.undo();
+            }
+            search.clearPrincipalVariation();
+        }
+
+        // Each move is played with the colour of the counter it left on the other board.
+        for (int i = shared; i < position.getMoveCount(); i++){
+            int column = position.getMove(i);
+            int row = board.getHeight(column);
+            play(column, position.getSquare(position.getBoardHeight() - 1 - row, column));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/* Evaluator is an interface for the ways a search can score a board once it reaches the end of its depth. An evaluator can keep its own
+    running totals that are updated as moves are played and undone, so the search tells it about every move as well as asking for scores.
+    Each search has its own evaluator, as the running totals belong to the board being searched. */
+
+public interface Evaluator {
+
+    // Sets the evaluator up for the given board, at the start of a search.
+    void reset(BitBoard board);
+
+    // Called after a counter of the given colour is played in the given column and row (where row 0 is the bottom of the board).
+    void play(int column, int row, char colour);
+
+    // Called after the counter in the given column and row is taken back.
+    void undo(int column, int row, char colour);
+
+    // Returns the score of the board for the given colour. Higher scores are better for that colour.
+    int evaluate(BitBoard board, char colour);
+}
@@ -0,0 +1,186 @@
+/* FlatDecisionTree builds the same tree as DecisionTree, but without creating an object for every node. DecisionTree gives each node a Node
+    object, a Board (with its array of rows) and a list of children, so a depth 4 tree creates tens of thousands of short-lived objects every
+    move. Here the tree is held in a handful of arrays instead, one for each thing a node stores, and a node is just an index into them:
+
+    - nodeMove[n] and nodePlayer[n] are the column played to reach node n and the colour index of the player who played it.
+    - red[n] and yellow[n] are the position at node n, as the two numbers a LongBitBoard stores, so a node's position is two longs rather
+      than a board.
+    - The children of a node are stored next to each other, from firstChild[n] to firstChild[n] + childCount[n] - 1, so no list is needed.
+
+    The arrays are kept between moves and only replaced if a tree needs more nodes than they hold, so building a tree for each move creates
+    no objects once the first tree has been built. Positions are stored as single numbers, so the tree only works on boards that fit in a
+    LongBitBoard (up to 8x7). */
+
+public class FlatDecisionTree {
+
+//Fields
+    // The root of the tree is always the first node.
+    public static final int ROOT = 0;
+
+    private int[] nodeMove;
+    private byte[] nodePlayer;
+    private long[] red;
+    private long[] yellow;
+    private int[] firstChild;
+    private int[] childCount;
+
+    // The number of nodes in the tree that was last built.
+    private int size;
+
+    /* A board of the size the tree was last built for. It is never played on, but is used to check the positions stored in the tree for
+        lines (see LongBitBoard.isWin). columnMasks[c] has a bit set for every square in column c and bottomBits[c] for its bottom square. */
+    private LongBitBoard layout;
+    private long[] columnMasks;
+    private long[] bottomBits;
+
+//Constructor
+    public FlatDecisionTree(){
+        size = 0;
+    }
+
+//Accessors
+    public int returnSize(){
+        return size;
+    }
+
+    public LongBitBoard returnLayout(){
+        return layout;
+    }
+
+    public int returnMove(int node){
+        return nodeMove[node];
+    }
+
+    public char returnPlayer(int node){
+        if (nodePlayer[node] == 0){
+            return 'r';
+        }
+        return 'y';
+    }
+
+    // Returns the counters of the given colour at the node, in the same layout as a LongBitBoard.
+    public long returnDiscs(int node, char colour){
+        if (colour == 'r'){
+            return red[node];
+        }
+        return yellow[node];
+    }
+
+    public int returnChildCount(int node){
+        return childCount[node];
+    }
+
+    // Returns the child of the node with the given number, counting from 0 in column order.
+    public int returnChild(int node, int child){
+        return firstChild[node] + child;
+    }
+
+    public boolean isLeaf(int node){
+        return childCount[node] == 0;
+    }
+
+//Methods
+    /* Builds a tree of every possible move from the given position up to the given depth, in the same way as DecisionTree: colour moves first,
+        the players take turns, and a move that wins is not searched below. As with DecisionTree, a depth of 4 gives a tree five moves deep.
+        One difference is that here all the children of a node are moves by the same player. DecisionTree switches the player inside its loop 
+        over the columns, so after the first child the colour of its siblings alternates. Any tree built before is replaced. */
+    public void build(BitBoard position, int depth, char colour){
+        if (!(position instanceof LongBitBoard)){
+            throw new IllegalArgumentException("The flat tree only works on boards that fit in 64 bits");
+        }
+        if (layout == null || !layout.sameGeometry(position)){
+            setLayout(position);
+        }
+        ensureCapacity(position.getWidth(), depth);
+
+        LongBitBoard board = (LongBitBoard) position;
+        int player = BitBoard.colourIndex(colour);
+        size = 0;
+        int root = addNode(0, 1 - player, board.getDiscs('r'), board.getDiscs('y'));
+        generate(root, depth, player);
+    }
+
+    /* Adds a child for every column that is not full, and then builds the tree below each child that did not win. All the children are added
+        before any of them are built on, so that they are next to each other in the arrays. */
+    private void generate(int parent, int depth, int player){
+        long mask = red[parent] | yellow[parent];
+        int first = size;
+        for (int col = 0; col < columnMasks.length; col++){
+
+            // Adding the bottom square to the counters in the column gives the square above them, which is outside the column if it is full.
+            long move = ((mask & columnMasks[col]) + bottomBits[col]) & columnMasks[col];
+            if (move == 0){
+                continue;
+            }
+            if (player == 0){
+                addNode(col, player, red[parent] | move, yellow[parent]);
+            }
+            else{
+                addNode(col, player, red[parent], yellow[parent] | move);
+            }
+        }
+        int end = size;
+        firstChild[parent] = first;
+        childCount[parent] = end - first;
+
+        if (depth == 0){
+            return;
+        }
+        for (int child = first; child < end; child++){
+            long discs = yellow[child];
+            if (player == 0){
+                discs = red[child];
+            }
+            if (!layout.isWin(discs)){
+                generate(child, depth - 1, 1 - player);
+            }
+        }
+    }
+
+    private int addNode(int move, int player, long redDiscs, long yellowDiscs){
+        int node = size;
+        nodeMove[node] = move;
+        nodePlayer[node] = (byte) player;
+        red[node] = redDiscs;
+        yellow[node] = yellowDiscs;
+        firstChild[node] = 0;
+        childCount[node] = 0;
+        size++;
+        return node;
+    }
+
+    private void setLayout(BitBoard position){
+        layout = (LongBitBoard) BitBoard.create(position.getWidth(), position.getBoardHeight(), position.getConnect());
+        int width = position.getWidth();
+        columnMasks = new long[width];
+        bottomBits = new long[width];
+        for (int col = 0; col < width; col++){
+            bottomBits[col] = layout.squareBit(0, col);
+            columnMasks[col] = ((1L << position.getBoardHeight()) - 1) << layout.squareIndex(col, 0);
+        }
+    }
+
+    /* Makes sure the arrays can hold the largest possible tree, which has width nodes below every node down to one more than the depth. The
+        arrays are only replaced when they are too small, so after the first move they are reused. */
+    private void ensureCapacity(int width, int depth){
+        long needed = 0;
+        long level = 1;
+        for (int i = 0; i <= depth + 1; i++){
+            needed += level;
+            level *= width;
+            if (needed > Integer.MAX_VALUE / 2){
+                throw new IllegalArgumentException("A tree of depth " + depth + " is too large to build");
+            }
+        }
+        if (nodeMove != null && nodeMove.length >= needed){
+            return;
+        }
+        int capacity = (int) needed;
+        nodeMove = new int[capacity];
+        nodePlayer = new byte[capacity];
+        red = new long[capacity];
+        yellow = new long[capacity];
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+    }
+}
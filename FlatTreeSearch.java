@@ -0,0 +1,106 @@
+/* FlatTreeSearch is the decision tree search (see TreeSearch) built on FlatDecisionTree, so that it finds the same moves without creating
+    objects. The tree is kept and rebuilt in place for every move, and minimax returns the move and score packed into a single long instead
+    of a Tuple, so once the first tree has been built a move creates no garbage.
+
+    It works the same way as TreeSearch: the value of a leaf is the weighted length of the longest line of the player who moved into it, and
+    as with the Tuple, the move returned alongside a score is the move of the leaf the score came from. The longest line is found on the
+    bitboard rather than with Board's getMaxScore, but both give the same length for every board. The tree always alternates players by
+    depth (see FlatDecisionTree.build). Unlike 
+    TreeSearch, the colour passed in is used, so the tree can be built for either player. */
+
+public class FlatTreeSearch implements SearchEngine {
+
+//Fields
+    // The depth of the tree, which is the same as the one DecisionTree builds unless another is given.
+    private static final int DEFAULTDEPTH = 4;
+
+    // The scores minimax starts from, which are lower and higher than any leaf can score (as in TreeSearch).
+    private static final int LOWESTSCORE = -100000;
+    private static final int HIGHESTSCORE = 100000;
+
+    private final int depth;
+    private final FlatDecisionTree tree;
+    private long nodeCount;
+    private long leafCount;
+
+//Constructor
+    public FlatTreeSearch(){
+        this(DEFAULTDEPTH);
+    }
+
+    public FlatTreeSearch(int depth){
+        if (depth < 0){
+            throw new IllegalArgumentException("The tree depth cannot be negative");
+        }
+        this.depth = depth;
+        tree = new FlatDecisionTree();
+    }
+
+//Accessors
+    @Override
+    public long returnNodeCount(){
+        return nodeCount;
+    }
+
+    @Override
+    public long returnLeafCount(){
+        return leafCount;
+    }
+
+    public FlatDecisionTree returnTree(){
+        return tree;
+    }
+
+//Methods
+    @Override
+    public int findMove(Board originalBoard, char colour){
+        tree.build(originalBoard.returnBitBoard(), depth, colour);
+        nodeCount = 0;
+        leafCount = 0;
+        return moveOf(miniMax(FlatDecisionTree.ROOT, true));
+    }
+
+    /* miniMax works the same as TreeSearch's, with the move and score packed into one long (see pack). A strictly better score replaces the
+        best so far, so ties go to the first child, as in TreeSearch. */
+    private long miniMax(int node, boolean computer){
+        nodeCount++;
+        int children = tree.returnChildCount(node);
+        if (children == 0){
+            leafCount++;
+            char player = tree.returnPlayer(node);
+            int run = tree.returnLayout().longestRun(tree.returnDiscs(node, player));
+            return pack(tree.returnMove(node), TreeSearch.weightScore(run, tree.returnLayout().getConnect()));
+        }
+
+        long best;
+        if (computer){
+            best = pack(0, LOWESTSCORE);
+        }
+        else{
+            best = pack(0, HIGHESTSCORE);
+        }
+        for (int i = 0; i < children; i++){
+            long result = miniMax(tree.returnChild(node, i), !computer);
+            if (computer && scoreOf(result) > scoreOf(best)){
+                best = result;
+            }
+            else if (!computer && scoreOf(result) < scoreOf(best)){
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    // The move is kept in the upper 32 bits and the score in the lower 32, so a result can be passed around without creating an object.
+    static long pack(int move, int score){
+        return ((long) move << 32) | (score & 0xFFFFFFFFL);
+    }
+
+    static int moveOf(long packed){
+        return (int) (packed >>> 32);
+    }
+
+    static int scoreOf(long packed){
+        return (int) packed;
+    }
+}
@@ -1,12 +1,32 @@
+import java.io.IOException;
+import java.util.Arrays;
+
 //Game handles the main game loop.
 public class Game {
     
 //Fields
     private Board board;
+
+    // Each finished game is written here so it can be replayed later (see GameRecord). It is null when games are not being kept.
+    private final GameRecordWriter recorder;
+
+    // The factory that creates the players, which decides who plays each colour and which colour moves first (see PlayerFactory).
+    private final PlayerFactory players;
     
 //Constructor
     public Game(){
-        board = new Board();
+        this(new PlayerFactory(), null);
+    }
+
+    public Game(GameRecordWriter recorder){
+        this(new PlayerFactory(), recorder);
+    }
+
+    // The board is the size given by the factory's settings, which is the standard board unless others are given.
+    public Game(PlayerFactory players, GameRecordWriter recorder){
+        board = players.createBoard();
+        this.players = players;
+        this.recorder = recorder;
         playGame();
     }
 
@@ -18,15 +38,28 @@ public class Game {
         display.printBoard(board.returnBoardArray());   
 
         /* Both the human and the computer player implement the Player interface. This allows them both to be stored in an array 
-            storing Player objects. The human player is stored at index 0, and the computer is stored at index 1.*/
-        Player[] player = new Player[2];
-        player[0] = new HumanPlayer();
-        player[1] = new ComputerPlayer();
-        
-        boolean playerWin = false;
+            storing Player objects. The player who moves first is stored at index 0, and the other player at index 1. By default this is the
+            human playing red, followed by the computer playing yellow.*/
+        Player[] player = players.createPlayers();
+
+        // The players are only used for this game, so they are closed however it ends, which stops any threads the computer has started.
+        try{
+            playGame(player, display);
+        }
+        finally{
+            player[0].close();
+            player[1].close();
+        }
+    }
+
+    private void playGame(Player[] player, Display display){
         boolean fullBoard = false;
         int position;
         int playerTurn = 0;
+
+        // The columns played, in order, for the game record.
+        int[] moves = new int[board.returnWidth() * board.returnHeight()];
+        int moveCount = 0;
         
         // Game loop
         while(true){
@@ -37,15 +70,14 @@ public class Game {
                 allows the code to be significantly reduced in size compared to having to having two completely seperate types, which would require 
                 needing two seperate blocks of code.*/
             position = player[playerTurn].getMove(board);
-            board.makeMove(position, player[playerTurn].returnColour());
+            int row = board.makeMove(position, player[playerTurn].returnColour());
+            moves[moveCount] = position;
+            moveCount++;
             display.printBoard(board.returnBoardArray());
             
-            /* Both players also have a method to return their colour (by default the player is red). Again, thanks to polymorphism, the same 
-                method name can be called on both. */
-            if (board.checkWin(player[playerTurn].returnColour()) ){
-                if (player[playerTurn].returnColour() == 'r'){
-                    playerWin = true;
-                }
+            /* Only the counter just placed can have won the game, so the win check only looks at the lines through it. playerTurn is left
+                pointing at the winner. */
+            if (board.checkWin(row, position)){
                 break;
             }
             else if (board.isBoardFull()){
@@ -62,27 +94,66 @@ public class Game {
             }    
         }
 
-        // Print out whoever won.
+        int result = GameRecord.DRAW;
+        if (!fullBoard){
+            result = GameRecord.winFor(player[playerTurn].returnColour());
+        }
+        recordGame(player, result, Arrays.copyOf(moves, moveCount));
+
+        /* Print out whoever won. Both players also have a method to return their colour, and thanks to polymorphism the same method name
+            can be called on both. When a person plays the computer the result is given from the person's side, and otherwise by colour. */
+        char winner = player[playerTurn].returnColour();
+        char loser = DepthFirstSearch.opponentOf(winner);
         if(fullBoard){
             System.out.println("It's a draw!");
         }
-        else if(playerWin){
+        else if(players.isHuman(winner) && !players.isHuman(loser)){
             System.out.println("you won!");
         }
-        else {
+        else if(!players.isHuman(winner) && players.isHuman(loser)){
             System.out.println("The computer won!");
         }
+        else {
+            System.out.println(colourName(winner) + " won!");
+        }
     }
         
 
+    /* Writes the finished game to the recorder, if there is one. The game has already been played by this point, so a problem writing it is
+        reported rather than stopping the program. */
+    private void recordGame(Player[] player, int result, int[] moves){
+        if (recorder == null){
+            return;
+        }
+        GameRecord record = new GameRecord(board.returnWidth(), board.returnHeight(), board.returnConnect(), player[0].returnName(), 
+            player[1].returnName(), player[0].returnColour(), result, moves);
+        try{
+            recorder.write(record);
+            recorder.flush();
+        }
+        catch(IOException e){
+            System.err.println("The game could not be saved: " + e.getMessage());
+        }
+    }
+
+    /* Print out the rules. This has been abstracted into a seperate method to simplify the code above. Who goes first and how many counters
+        make a line come from the settings (see PlayerFactory), so the rules match the game being played. */
     private void printRules(){
-        // Print out the rules. This has been abstracted into a seperate method to simplify the code above.
-        System.out.println("Welcome to Connect 4");
+        char first = players.returnFirstColour();
+        int connect = board.returnConnect();
+        System.out.println("Welcome to Connect " + connect);
 		System.out.println("There are 2 players red and yellow");
-		System.out.println("Player 1 is Red, Player 2 is Yellow");
+		System.out.println("Player 1 is " + colourName(first) + ", Player 2 is " + colourName(DepthFirstSearch.opponentOf(first)));
 		System.out.println("To play the game type in the number of the column you want to drop you counter in"); 
-		System.out.println("A player wins by connecting 4 counters in a row - vertically, horizontally or diagonally");
+		System.out.println("A player wins by connecting " + connect + " counters in a row - vertically, horizontally or diagonally");
 		System.out.println("");
     }
+
+    private static String colourName(char colour){
+        if (colour == 'r'){
+            return "Red";
+        }
+        return "Yellow";
+    }
 }
 
@@ -0,0 +1,160 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* GameClient connects to a GameServer and plays games on it, standing in for the service that would normally sit in front of the server.
+    It is used to try the server out and to load it with many games at once (see main). Each command is sent as a line and the server's
+    one line answer is returned (see GameConnection for the protocol). */
+
+public class GameClient implements Closeable {
+
+//Fields
+    private final Socket socket;
+    private final BufferedReader input;
+    private final Writer output;
+    private final String greeting;
+
+//Constructor
+    public GameClient(String host, int port) throws IOException{
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        output = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        greeting = input.readLine();
+        if (greeting == null || !greeting.startsWith("HELLO")){
+            socket.close();
+            throw new IOException("Not a game server: " + greeting);
+        }
+    }
+
+//Accessors
+    public String returnGreeting(){
+        return greeting;
+    }
+
+//Methods
+    // Sends a command and returns the server's answer.
+    public String send(String command) throws IOException{
+        output.write(command);
+        output.write("\r\n");
+        output.flush();
+        String answer = input.readLine();
+        if (answer == null){
+            throw new IOException("The server closed the connection");
+        }
+        return answer;
+    }
+
+    /* Plays a whole game on the standard board with the given player choosing the client's moves, and returns the result as one of the
+        results in GameRecord. The client keeps its own board, so that the player can see the position. */
+    public int play(Player player) throws IOException{
+        char colour = player.returnColour();
+        char computer = DepthFirstSearch.opponentOf(colour);
+        Board board = new Board();
+        String answer = send("NEW " + colour);
+        if (answer.startsWith("MOVE")){
+            answer = playComputerMove(board, answer, computer);
+        }
+        while (answer.equals("READY") || answer.startsWith("MOVE")){
+            int move = player.getMove(board);
+            board.makeMove(move, colour);
+            answer = send("PLAY " + (move + 1));
+            if (answer.startsWith("MOVE")){
+                answer = playComputerMove(board, answer, computer);
+            }
+        }
+        if (answer.equals("WIN")){
+            return GameRecord.winFor(colour);
+        }
+        if (answer.equals("LOSS")){
+            return GameRecord.winFor(computer);
+        }
+        if (answer.equals("DRAW")){
+            return GameRecord.DRAW;
+        }
+        throw new IOException("Unexpected answer from the server: " + answer);
+    }
+
+    /* Plays the computer's move from a MOVE answer on the client's board. If the move ended the game the result is returned, and otherwise
+        the answer is returned as it was so the game carries on. */
+    private static String playComputerMove(Board board, String answer, char computer){
+        String[] words = answer.split(" ");
+        board.makeMove(Integer.parseInt(words[1]) - 1, computer);
+        if (words.length > 2){
+            return words[2];
+        }
+        return answer;
+    }
+
+    @Override
+    public void close() throws IOException{
+        socket.close();
+    }
+
+    /* Loads a server from the command line: java GameClient <host> <port> [connections] [games per connection] [depth]. Every connection
+        plays its games at the same time as the others, with a computer player of the given depth (2 by default) choosing the client's moves
+        and the colours taking turns between games. */
+    public static void main(String[] args) throws Exception{
+        if (args.length < 2){
+            System.err.println("Usage: java GameClient <host> <port> [connections] [games per connection] [depth]");
+            System.exit(1);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int connections = 1;
+        int games = 1;
+        int depth = 2;
+        if (args.length > 2){
+            connections = Integer.parseInt(args[2]);
+        }
+        if (args.length > 3){
+            games = Integer.parseInt(args[3]);
+        }
+        if (args.length > 4){
+            depth = Integer.parseInt(args[4]);
+        }
+
+        int gamesEach = games;
+        int clientDepth = depth;
+        AtomicLong[] results = {new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()};
+        AtomicLong failures = new AtomicLong();
+        List<Thread> threads = new ArrayList<Thread>();
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++){
+            Thread thread = new Thread(() -> {
+                try (GameClient client = new GameClient(host, port)){
+                    for (int game = 0; game < gamesEach; game++){
+                        char colour = 'r';
+                        if (game % 2 == 1){
+                            colour = 'y';
+                        }
+                        results[client.play(new ComputerPlayer(new AlphaBetaSearch(clientDepth), colour))].incrementAndGet();
+                    }
+                    client.send("QUIT");
+                }
+                catch(IOException e){
+                    failures.incrementAndGet();
+                }
+            }, "client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads){
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long played = results[GameRecord.REDWIN].get() + results[GameRecord.YELLOWWIN].get() + results[GameRecord.DRAW].get();
+        System.out.printf("%d games in %.1f s (%.1f games/s): red won %d, yellow won %d, %d draws, %d connections failed%n", played, seconds,
+            played / seconds, results[GameRecord.REDWIN].get(), results[GameRecord.YELLOWWIN].get(), results[GameRecord.DRAW].get(),
+            failures.get());
+    }
+}
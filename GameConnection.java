@@ -0,0 +1,222 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/* A GameConnection plays games with one client of the GameServer. The protocol is made of lines of text: the client sends a command and the
+    server always answers with exactly one line. When the client connects the server sends
+
+        HELLO connect-four 1
+
+    and the client can then send:
+
+        NEW [r|y] [width height connect]   Starts a new game, with the client playing the given colour (red by default). Red moves first,
+                                           so the answer is READY if it is the client's move, or MOVE and the computer's first move.
+        PLAY column                        Plays the client's move. The answer is MOVE and the computer's reply, followed by LOSS or DRAW
+                                           if the reply ends the game, or WIN or DRAW if the client's move ended it.
+        POSITION                           Answers POSITION and the moves of the game so far as a move string (see PositionAnalyser), or
+                                           POSITION - if no moves have been played.
+        QUIT                               Answers BYE and closes the connection.
+
+    Columns count from 1, as they do at the console. Anything the server cannot carry out is answered with ERROR and the reason, and the game
+    carries on as before. No command is anywhere near MAXLINELENGTH characters long, so a longer line is answered with ERROR and the 
+    connection is closed, rather than the server holding on to everything a client sends without a line break. */
+
+class GameConnection {
+
+//Fields
+    static final int MAXLINELENGTH = 256;
+
+    private final GameServer server;
+    private final Socket socket;
+
+    // The current game. board is null until the client starts a game.
+    private Board board;
+    private ComputerPlayer computer;
+    private char clientColour;
+    private boolean gameOver;
+    private StringBuilder moves;
+
+//Constructor
+    GameConnection(GameServer server, Socket socket){
+        this.server = server;
+        this.socket = socket;
+    }
+
+//Methods
+    /* Reads commands until the client quits or disconnects, or the connection is idle for too long. The socket is closed by the server once
+        this returns. */
+    void run(){
+        try (BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer output = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))){
+            send(output, "HELLO connect-four " + GameServer.PROTOCOLVERSION);
+            String line = readLine(input);
+            while (line != null){
+                if (line.length() > MAXLINELENGTH){
+                    send(output, "ERROR the line is longer than " + MAXLINELENGTH + " characters");
+                    return;
+                }
+                String[] words = line.trim().split("\\s+");
+                String command = words[0].toUpperCase(Locale.ROOT);
+                if (command.equals("QUIT")){
+                    send(output, "BYE");
+                    return;
+                }
+                send(output, answer(command, words));
+                line = readLine(input);
+            }
+        }
+        catch(SocketTimeoutException e){
+            // The client has been idle for too long, so the connection is dropped.
+        }
+        catch(IOException e){
+            // The client has gone away, which ends the game.
+        }
+        catch(InterruptedException e){
+            // The server is shutting down.
+            Thread.currentThread().interrupt();
+        }
+        finally{
+            endGame();
+        }
+    }
+
+    /* Reads a line without its line break, or returns null once the client has closed the connection. Reading stops a character or two past
+        MAXLINELENGTH (leaving room for a carriage return), so a line that is too long is returned cut short and the rest is never read. */
+    private static String readLine(Reader input) throws IOException{
+        StringBuilder line = new StringBuilder();
+        int next = input.read();
+        if (next < 0){
+            return null;
+        }
+        while (next >= 0 && next != '\n' && line.length() <= MAXLINELENGTH + 1){
+            line.append((char) next);
+            next = input.read();
+        }
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r'){
+            line.setLength(line.length() - 1);
+        }
+        return line.toString();
+    }
+
+    // Closes the computer player of the current game, if there is one, so that nothing it started is left running (see Player.close).
+    private void endGame(){
+        if (computer != null){
+            computer.close();
+            computer = null;
+        }
+    }
+
+    private String answer(String command, String[] words) throws InterruptedException{
+        try{
+            if (command.equals("NEW")){
+                return newGame(words);
+            }
+            if (command.equals("PLAY")){
+                if (words.length != 2){
+                    return "ERROR PLAY needs a column";
+                }
+                return play(Integer.parseInt(words[1]) - 1);
+            }
+            if (command.equals("POSITION")){
+                if (board == null || moves.length() == 0){
+                    return "POSITION -";
+                }
+                return "POSITION " + moves;
+            }
+            return "ERROR unknown command " + words[0];
+        }
+        catch(NumberFormatException e){
+            return "ERROR expected a number";
+        }
+        catch(IllegalArgumentException e){
+            return "ERROR " + e.getMessage();
+        }
+    }
+
+    private String newGame(String[] words) throws InterruptedException{
+        char colour = 'r';
+        if (words.length > 1){
+            String name = words[1].toLowerCase(Locale.ROOT);
+            if (!name.equals("r") && !name.equals("y")){
+                return "ERROR the colour must be r or y";
+            }
+            colour = name.charAt(0);
+        }
+        if (words.length == 2 || words.length == 1){
+            board = new Board();
+        }
+        else if (words.length == 5){
+            board = new Board(Integer.parseInt(words[2]), Integer.parseInt(words[3]), Integer.parseInt(words[4]));
+        }
+        else{
+            return "ERROR NEW takes a colour and optionally a width, height and connect";
+        }
+        clientColour = colour;
+        endGame();
+        computer = server.newComputerPlayer(DepthFirstSearch.opponentOf(colour));
+        gameOver = false;
+        moves = new StringBuilder();
+
+        if (colour == 'r'){
+            return "READY";
+        }
+        return computerMove();
+    }
+
+    private String play(int column) throws InterruptedException{
+        if (board == null){
+            return "ERROR no game has been started";
+        }
+        if (gameOver){
+            return "ERROR the game is over";
+        }
+        if (column < 0 || column >= board.returnWidth()){
+            return "ERROR the column must be between 1 and " + board.returnWidth();
+        }
+        int row = board.makeMove(column, clientColour);
+        if (row < 0){
+            return "ERROR column " + (column + 1) + " is full";
+        }
+        moves.append(Character.forDigit(column + 1, 16));
+        if (board.checkWin(row, column)){
+            gameOver = true;
+            return "WIN";
+        }
+        if (board.isBoardFull()){
+            gameOver = true;
+            return "DRAW";
+        }
+        return computerMove();
+    }
+
+    // Searches for the computer's move on the server's search pool and plays it.
+    private String computerMove() throws InterruptedException{
+        int column = server.searchMove(computer, board);
+        int row = board.makeMove(column, computer.returnColour());
+        moves.append(Character.forDigit(column + 1, 16));
+        String answer = "MOVE " + (column + 1);
+        if (board.checkWin(row, column)){
+            gameOver = true;
+            return answer + " LOSS";
+        }
+        if (board.isBoardFull()){
+            gameOver = true;
+            return answer + " DRAW";
+        }
+        return answer;
+    }
+
+    private static void send(Writer output, String line) throws IOException{
+        output.write(line);
+        output.write("\r\n");
+        output.flush();
+    }
+}
@@ -0,0 +1,148 @@
+/* A GameRecord holds everything needed to replay a finished game: the size of the board, who played, which colour went first, the result
+    and the columns played in order. Records are written to and read from files by GameRecordWriter and GameRecordReader, which store each
+    move in four bits, so a full game on the standard board takes 27 bytes.
+
+    The values are final, as a record describes a game that has already been played. The moves are copied in and out so that the record
+    cannot be changed by whoever created it or reads it. */
+
+public class GameRecord {
+
+//Fields
+    // The result of the game. A game that was stopped before anyone won or the board filled up is unfinished.
+    public static final int UNFINISHED = 0;
+    public static final int REDWIN = 1;
+    public static final int YELLOWWIN = 2;
+    public static final int DRAW = 3;
+
+    /* The number in a row needed to win is stored in four bits, so it cannot be more than 15. The width and height are already limited to 15
+        by BitBoard. */
+    public static final int MAXCONNECT = 15;
+
+    private final int width;
+    private final int height;
+    private final int connect;
+    private final String firstPlayer;
+    private final String secondPlayer;
+    private final char firstColour;
+    private final int result;
+    private final int[] moves;
+
+//Constructor
+    /* The moves are checked to be columns on the board, but not that the columns have room, so that a record can be created as quickly as the
+        file is read. Use replay to check a game can actually be played. */
+    public GameRecord(int width, int height, int connect, String firstPlayer, String secondPlayer, char firstColour, int result, int[] moves){
+        if (width < 1 || width > BitBoard.MAXWIDTH || height < 1 || height > BitBoard.MAXHEIGHT){
+            throw new IllegalArgumentException("The board must be between 1x1 and " + BitBoard.MAXWIDTH + "x" + BitBoard.MAXHEIGHT);
+        }
+        if (connect < 2 || connect > MAXCONNECT){
+            throw new IllegalArgumentException("A record can only store between 2 and " + MAXCONNECT + " in a row");
+        }
+        if (firstColour != 'r' && firstColour != 'y'){
+            throw new IllegalArgumentException("The first colour must be 'r' or 'y'");
+        }
+        if (result < UNFINISHED || result > DRAW){
+            throw new IllegalArgumentException("Unknown result " + result);
+        }
+        if (moves.length > width * height){
+            throw new IllegalArgumentException("A " + width + "x" + height + " game cannot have " + moves.length + " moves");
+        }
+        for (int move : moves){
+            if (move < 0 || move >= width){
+                throw new IllegalArgumentException("Column " + move + " is not on a board " + width + " wide");
+            }
+        }
+        this.width = width;
+        this.height = height;
+        this.connect = connect;
+        this.firstPlayer = firstPlayer;
+        this.secondPlayer = secondPlayer;
+        this.firstColour = firstColour;
+        this.result = result;
+        this.moves = moves.clone();
+    }
+
+//Accessors
+    public int returnWidth(){
+        return width;
+    }
+
+    public int returnHeight(){
+        return height;
+    }
+
+    public int returnConnect(){
+        return connect;
+    }
+
+    public String returnFirstPlayer(){
+        return firstPlayer;
+    }
+
+    public String returnSecondPlayer(){
+        return secondPlayer;
+    }
+
+    public char returnFirstColour(){
+        return firstColour;
+    }
+
+    public int returnResult(){
+        return result;
+    }
+
+    public int returnMoveCount(){
+        return moves.length;
+    }
+
+    public int returnMove(int index){
+        return moves[index];
+    }
+
+    public int[] returnMoves(){
+        return moves.clone();
+    }
+
+//Methods
+    // Returns the result for a game won by the given colour.
+    public static int winFor(char colour){
+        if (colour == 'r'){
+            return REDWIN;
+        }
+        return YELLOWWIN;
+    }
+
+    // Returns the colour of the player who makes the move with the given index, as the players take turns from firstColour.
+    public char colourOfMove(int index){
+        if (index % 2 == 0){
+            return firstColour;
+        }
+        if (firstColour == 'r'){
+            return 'y';
+        }
+        return 'r';
+    }
+
+    /* Plays the game out on a new board and returns the final position. An exception is thrown if a move is played into a full column, so
+        this also checks that the record holds a real game. */
+    public Board replay(){
+        Board board = new Board(width, height, connect);
+        for (int i = 0; i < moves.length; i++){
+            if (board.makeMove(moves[i], colourOfMove(i)) < 0){
+                throw new IllegalStateException("Move " + (i + 1) + " is played in column " + moves[i] + ", which is full");
+            }
+        }
+        return board;
+    }
+
+    // The moves are listed as column numbers starting from 1, as they are shown on the board.
+    @Override
+    public String toString(){
+        StringBuilder text = new StringBuilder();
+        text.append(firstPlayer).append(" v ").append(secondPlayer).append(' ')
+            .append(width).append('x').append(height).append(" connect ").append(connect).append(':');
+        for (int move : moves){
+            text.append(' ').append(move + 1);
+        }
+        return text.toString();
+    }
+}
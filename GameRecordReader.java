@@ -0,0 +1,219 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/* GameRecordReader reads back the games written by GameRecordWriter (see there for the file format). The file is memory-mapped rather than
+    read in, so the operating system only loads the parts being read, and games are read one at a time in place: next moves on to the next
+    game, and the accessors read the current game straight from the mapped file. No objects are created for a game unless toRecord is called,
+    so a file of millions of games can be gone through without filling the heap.
+
+        try (GameRecordReader reader = GameRecordReader.open(file)){
+            while (reader.next()){
+                ... reader.returnResult(), reader.returnMove(i) ...
+            }
+        }
+
+    A single mapping can cover at most 2GB, so larger files are mapped a window at a time, and the window is moved on whenever the next entry
+    does not fit in what is left of it. The reader is not thread safe; each thread should open its own. */
+
+public class GameRecordReader implements Closeable {
+
+//Fields
+    // The size of the part of the file mapped at once, and the largest an entry can be, which is a player with the longest name.
+    private static final long WINDOWSIZE = 1L << 30;
+    private static final int MAXENTRYSIZE = 3 + GameRecordWriter.MAXNAMELENGTH;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer buffer;
+    private long windowStart;
+
+    // The name of each player number, which is set as player entries are read.
+    private final String[] playerNames;
+
+    // The current game. movesOffset is where its moves start in the buffer.
+    private int width;
+    private int height;
+    private int connect;
+    private int result;
+    private char firstColour;
+    private int firstPlayer;
+    private int secondPlayer;
+    private int moveCount;
+    private int movesOffset;
+    private long gameCount;
+
+//Constructor
+    private GameRecordReader(FileChannel channel) throws IOException{
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.playerNames = new String[GameRecordWriter.MAXPLAYERS];
+        this.gameCount = 0;
+        mapWindow(0);
+        if (fileSize < GameRecordWriter.HEADERSIZE || buffer.getInt(0) != GameRecordWriter.MAGIC){
+            throw new IOException("Not a game record file");
+        }
+        if (buffer.get(4) != GameRecordWriter.VERSION){
+            throw new IOException("Unsupported game record version " + buffer.get(4));
+        }
+        buffer.position(GameRecordWriter.HEADERSIZE);
+    }
+
+    public static GameRecordReader open(Path file) throws IOException{
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try{
+            return new GameRecordReader(channel);
+        }
+        catch(IOException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+//Accessors
+    // The number of games read so far, which is the number of the current game counting from 1.
+    public long returnGameCount(){
+        return gameCount;
+    }
+
+    public int returnWidth(){
+        return width;
+    }
+
+    public int returnHeight(){
+        return height;
+    }
+
+    public int returnConnect(){
+        return connect;
+    }
+
+    // One of the results in GameRecord.
+    public int returnResult(){
+        return result;
+    }
+
+    public char returnFirstColour(){
+        return firstColour;
+    }
+
+    public String returnFirstPlayer(){
+        return playerNames[firstPlayer];
+    }
+
+    public String returnSecondPlayer(){
+        return playerNames[secondPlayer];
+    }
+
+    public int returnMoveCount(){
+        return moveCount;
+    }
+
+    // Reads a move of the current game from the file. Each byte holds two moves, with the earlier one in the upper four bits.
+    public int returnMove(int index){
+        if (index < 0 || index >= moveCount){
+            throw new IndexOutOfBoundsException("Move " + index + " of a game with " + moveCount + " moves");
+        }
+        int pair = buffer.get(movesOffset + index / 2);
+        if (index % 2 == 0){
+            return (pair >> 4) & 0xF;
+        }
+        return pair & 0xF;
+    }
+
+//Methods
+    /* Moves on to the next game, reading any player names on the way. Returns false once the end of the file is reached. A file that ends
+        part way through an entry, such as one still being written, is treated as ending before that entry. */
+    public boolean next() throws IOException{
+        while (true){
+            long entryStart = windowStart + buffer.position();
+            if (fileSize - entryStart < 2){
+                return false;
+            }
+            if (buffer.remaining() < Math.min(MAXENTRYSIZE, fileSize - entryStart)){
+                mapWindow(entryStart);
+            }
+
+            int type = buffer.get();
+            if (type == GameRecordWriter.PLAYERENTRY){
+                if (buffer.remaining() < 2){
+                    return false;
+                }
+                int number = buffer.get() & 0xFF;
+                int length = buffer.get() & 0xFF;
+                if (buffer.remaining() < length){
+                    return false;
+                }
+                byte[] name = new byte[length];
+                buffer.get(name);
+                playerNames[number] = new String(name, StandardCharsets.UTF_8);
+            }
+            else if (type == GameRecordWriter.GAMEENTRY){
+                return readGame();
+            }
+            else{
+                throw new IOException("Unknown entry type " + type + " at byte " + entryStart);
+            }
+        }
+    }
+
+    // Creates a GameRecord holding the current game, for when it needs to be kept after the reader moves on.
+    public GameRecord toRecord(){
+        int[] moves = new int[moveCount];
+        for (int i = 0; i < moveCount; i++){
+            moves[i] = returnMove(i);
+        }
+        return new GameRecord(width, height, connect, returnFirstPlayer(), returnSecondPlayer(), firstColour, result, moves);
+    }
+
+    @Override
+    public void close() throws IOException{
+        channel.close();
+    }
+
+    // Reads the header of a game entry, leaving the buffer at the start of the next entry.
+    private boolean readGame() throws IOException{
+        if (buffer.remaining() < GameRecordWriter.GAMEHEADERSIZE - 1){
+            return false;
+        }
+        int size = buffer.get() & 0xFF;
+        int rules = buffer.get() & 0xFF;
+        int first = buffer.get() & 0xFF;
+        int second = buffer.get() & 0xFF;
+        int moves = buffer.get() & 0xFF;
+        int moveBytes = (moves + 1) / 2;
+        if (buffer.remaining() < moveBytes){
+            return false;
+        }
+        if (playerNames[first] == null || playerNames[second] == null){
+            throw new IOException("Game " + (gameCount + 1) + " refers to a player that has not been named");
+        }
+
+        width = (size >> 4) + 1;
+        height = (size & 0xF) + 1;
+        connect = rules >> 4;
+        result = (rules >> 1) & 0x3;
+        firstColour = 'r';
+        if ((rules & 1) != 0){
+            firstColour = 'y';
+        }
+        firstPlayer = first;
+        secondPlayer = second;
+        moveCount = moves;
+        movesOffset = buffer.position();
+        buffer.position(movesOffset + moveBytes);
+        gameCount++;
+        return true;
+    }
+
+    // Maps the part of the file starting at the given byte.
+    private void mapWindow(long start) throws IOException{
+        long size = Math.min(WINDOWSIZE, fileSize - start);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+    }
+}
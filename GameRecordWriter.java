@@ -0,0 +1,166 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/* GameRecordWriter writes games to a file one at a time as they finish, in a compact binary format that GameRecordReader can read back.
+    Nothing is kept in memory once a game has been written apart from the names of the players, so a writer can be left open for as many
+    games as are played.
+
+    The file starts with an 8 byte header:
+
+        bytes 0-3   the characters C4GR
+        byte  4     format version (1)
+        bytes 5-7   unused
+
+    followed by entries, each starting with a byte saying what it is. Player names are written once, the first time a player appears, and
+    games refer to them by a number:
+
+        'P'  player      1 byte player number, 1 byte length, then the name in UTF-8
+        'G'  game        1 byte (width - 1) << 4 | (height - 1)
+                         1 byte connect << 4 | result << 1 | 1 if yellow went first
+                         1 byte first player number, 1 byte second player number
+                         1 byte number of moves
+                         the moves, two to a byte with the first in the upper four bits
+
+    Every column fits in four bits as boards are at most 15 wide, so a full game on the standard board is 6 bytes plus 21 bytes of moves.
+    Games can be written from several threads at once (see MatchRunner), so write is synchronized. */
+
+public class GameRecordWriter implements Closeable {
+
+//Fields
+    static final int MAGIC = 0x43344752;
+    static final int VERSION = 1;
+    static final int HEADERSIZE = 8;
+    static final int PLAYERENTRY = 'P';
+    static final int GAMEENTRY = 'G';
+    static final int GAMEHEADERSIZE = 6;
+
+    // Player numbers are stored in a byte, so a file can name up to 256 players. The name is stored with a byte for its length.
+    static final int MAXPLAYERS = 256;
+    static final int MAXNAMELENGTH = 255;
+
+    private final DataOutputStream output;
+    private final Map<String, Integer> playerNumbers;
+    private long gameCount;
+
+//Constructor
+    // Writes the header and then games to the stream. The stream is closed when the writer is.
+    public GameRecordWriter(OutputStream stream) throws IOException{
+        this(stream, true);
+    }
+
+    private GameRecordWriter(OutputStream stream, boolean writeHeader) throws IOException{
+        output = new DataOutputStream(new BufferedOutputStream(stream));
+        playerNumbers = new HashMap<String, Integer>();
+        gameCount = 0;
+        if (writeHeader){
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeByte(0);
+            output.writeShort(0);
+        }
+    }
+
+    // Creates a new file, replacing any file that is already there.
+    public static GameRecordWriter open(Path file) throws IOException{
+        return new GameRecordWriter(Files.newOutputStream(file));
+    }
+
+    /* Opens a file to add games to the end of it, creating it if it does not exist, so a single archive can be built up over many runs. The
+        player names are written again the first time each one appears, which the reader handles as it always uses the latest name given
+        to a number. */
+    public static GameRecordWriter append(Path file) throws IOException{
+        if (!Files.exists(file) || Files.size(file) == 0){
+            return open(file);
+        }
+        try (InputStream stream = Files.newInputStream(file)){
+            DataInputStream input = new DataInputStream(stream);
+            if (Files.size(file) < HEADERSIZE || input.readInt() != MAGIC){
+                throw new IOException(file + " is not a game record file");
+            }
+            int version = input.readByte();
+            if (version != VERSION){
+                throw new IOException("Unsupported game record version " + version);
+            }
+        }
+        return new GameRecordWriter(Files.newOutputStream(file, StandardOpenOption.APPEND), false);
+    }
+
+//Accessors
+    // The number of games written by this writer.
+    public synchronized long returnGameCount(){
+        return gameCount;
+    }
+
+//Methods
+    // Writes a game to the end of the file. It may be held in a buffer until the writer is flushed or closed.
+    public synchronized void write(GameRecord record) throws IOException{
+        int first = playerNumber(record.returnFirstPlayer());
+        int second = playerNumber(record.returnSecondPlayer());
+        int firstYellow = 0;
+        if (record.returnFirstColour() == 'y'){
+            firstYellow = 1;
+        }
+
+        output.writeByte(GAMEENTRY);
+        output.writeByte((record.returnWidth() - 1) << 4 | (record.returnHeight() - 1));
+        output.writeByte(record.returnConnect() << 4 | record.returnResult() << 1 | firstYellow);
+        output.writeByte(first);
+        output.writeByte(second);
+        int moveCount = record.returnMoveCount();
+        output.writeByte(moveCount);
+        for (int i = 0; i < moveCount; i += 2){
+            int pair = record.returnMove(i) << 4;
+            if (i + 1 < moveCount){
+                pair |= record.returnMove(i + 1);
+            }
+            output.writeByte(pair);
+        }
+        gameCount++;
+    }
+
+    public synchronized void flush() throws IOException{
+        output.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException{
+        output.close();
+    }
+
+    /* Returns the number for a player's name, writing the name to the file the first time it is seen. A missing name is written as an
+        empty one. */
+    private int playerNumber(String name) throws IOException{
+        if (name == null){
+            name = "";
+        }
+        Integer number = playerNumbers.get(name);
+        if (number != null){
+            return number;
+        }
+        if (playerNumbers.size() == MAXPLAYERS){
+            throw new IOException("A game record file cannot name more than " + MAXPLAYERS + " players");
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAXNAMELENGTH){
+            throw new IllegalArgumentException("The player name " + name + " is longer than " + MAXNAMELENGTH + " bytes");
+        }
+        int newNumber = playerNumbers.size();
+        output.writeByte(PLAYERENTRY);
+        output.writeByte(newNumber);
+        output.writeByte(bytes.length);
+        output.write(bytes);
+        playerNumbers.put(name, newNumber);
+        return newNumber;
+    }
+}
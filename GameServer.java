@@ -0,0 +1,244 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* The GameServer lets people play against the computer over the network, so that the engine can sit behind another service rather than
+    being played at a console. Each connection is a game (or a series of games) played with a simple line-based protocol (see
+    GameConnection), which can be tried out by hand with a tool such as telnet or netcat, or with GameClient.
+
+    Most of the time a connection is waiting for the other side to send its move, so each connection has its own thread that just reads and
+    writes lines. On Java 21 and later these are virtual threads, which cost almost nothing while they wait, so the server can hold many
+    thousands of connections. The game is built for Java 17, where virtual threads are not available, so they are looked up when the server
+    starts (see connectionThreads) and ordinary threads are used if they are missing.
+
+    The searches for the computer's moves are the expensive part, and are not run on the connection threads. They are handed to a separate
+    pool with a fixed number of threads, normally one per processor, so however many games are being played at once the searches never take
+    more than the processors available, and a client that is slow to send its moves holds up nothing but its own connection. */
+
+public class GameServer implements Closeable {
+
+//Fields
+    // The protocol version sent in the greeting, to be raised if the protocol changes.
+    static final int PROTOCOLVERSION = 1;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final ExecutorService searches;
+    private final int searchThreads;
+    private final int depth;
+    private final long timeBudgetMillis;
+    private final int idleTimeoutMillis;
+
+    // The sockets that are open, so they can all be closed when the server is.
+    private final Set<Socket> openSockets;
+    private final AtomicLong connectionCount;
+    private final AtomicLong gamesStarted;
+    private final AtomicLong movesSearched;
+    private volatile boolean running;
+
+//Constructor
+    /* Opens the server on the given port, or on any free port if it is 0. Each computer player searches to the given depth, within the time
+        budget if it is not 0 (see AlphaBetaSearch). A connection that sends nothing for the idle timeout is closed, so a client that stops
+        part way through a line does not hold its connection open for ever. */
+    public GameServer(int port, int searchThreads, int depth, long timeBudgetMillis, int idleTimeoutMillis) throws IOException{
+        if (searchThreads < 1){
+            throw new IllegalArgumentException("The number of search threads must be at least 1");
+        }
+        if (depth < 1){
+            throw new IllegalArgumentException("The search depth must be at least 1");
+        }
+        if (idleTimeoutMillis < 1){
+            throw new IllegalArgumentException("The idle timeout must be at least 1 millisecond");
+        }
+        this.searchThreads = searchThreads;
+        this.depth = depth;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        openSockets = ConcurrentHashMap.newKeySet();
+        connectionCount = new AtomicLong();
+        gamesStarted = new AtomicLong();
+        movesSearched = new AtomicLong();
+
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(port), 1024);
+        connections = connectionThreads();
+        searches = Executors.newFixedThreadPool(searchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "server-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+//Accessors
+    public int returnPort(){
+        return serverSocket.getLocalPort();
+    }
+
+    public InetAddress returnAddress(){
+        return serverSocket.getInetAddress();
+    }
+
+    public int returnSearchThreads(){
+        return searchThreads;
+    }
+
+    // The number of connections that are open at the moment.
+    public int returnOpenConnections(){
+        return openSockets.size();
+    }
+
+    public long returnConnectionCount(){
+        return connectionCount.get();
+    }
+
+    public long returnGamesStarted(){
+        return gamesStarted.get();
+    }
+
+    public long returnMovesSearched(){
+        return movesSearched.get();
+    }
+
+//Methods
+    // Starts accepting connections on a background thread and returns straight away.
+    public void start(){
+        running = true;
+        Thread acceptor = new Thread(this::serve, "server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    // Accepts connections on the calling thread until the server is closed.
+    public void serve(){
+        running = true;
+        acceptConnections();
+    }
+
+    /* Stops accepting connections, closes every open connection and stops the threads. Games in progress are ended, and their searches are
+        left to finish on their own. */
+    @Override
+    public void close() throws IOException{
+        running = false;
+        serverSocket.close();
+        for (Socket socket : openSockets){
+            closeQuietly(socket);
+        }
+        connections.shutdownNow();
+        searches.shutdownNow();
+    }
+
+    private void acceptConnections(){
+        while (running){
+            Socket socket;
+            try{
+                socket = serverSocket.accept();
+            }
+            catch(IOException e){
+                // The server socket is closed when the server is, which ends the loop.
+                if (running){
+                    System.err.println("Could not accept a connection: " + e.getMessage());
+                }
+                continue;
+            }
+            connectionCount.incrementAndGet();
+            openSockets.add(socket);
+            try{
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(idleTimeoutMillis);
+                connections.execute(() -> {
+                    try{
+                        new GameConnection(this, socket).run();
+                    }
+                    finally{
+                        openSockets.remove(socket);
+                        closeQuietly(socket);
+                    }
+                });
+            }
+            catch(IOException | RuntimeException e){
+                openSockets.remove(socket);
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    // Creates the computer player for a new game, with its own search so that games do not share any state.
+    ComputerPlayer newComputerPlayer(char colour){
+        gamesStarted.incrementAndGet();
+        return new ComputerPlayer(new AlphaBetaSearch(depth, null, timeBudgetMillis), colour);
+    }
+
+    /* Runs a search on the search pool and waits for the move. The connection's thread does nothing while it waits, so the number of searches
+        running at once is limited by the pool rather than by the number of connections. */
+    int searchMove(ComputerPlayer player, Board board) throws InterruptedException{
+        Callable<Integer> search = () -> player.getMove(board);
+        try{
+            int move = searches.submit(search).get();
+            movesSearched.incrementAndGet();
+            return move;
+        }
+        catch(ExecutionException e){
+            throw new IllegalStateException("The search failed", e.getCause());
+        }
+    }
+
+    /* Returns a virtual thread per connection if this version of Java has them (Executors.newVirtualThreadPerTaskExecutor, added in Java 21),
+        and otherwise a pool that creates ordinary threads as they are needed and reuses them once their connections close. */
+    static ExecutorService connectionThreads(){
+        try{
+            Method virtualThreads = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualThreads.invoke(null);
+        }
+        catch(ReflectiveOperationException e){
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(null, runnable, "server-connection", 256 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private static void closeQuietly(Socket socket){
+        try{
+            socket.close();
+        }
+        catch(IOException e){
+            // The connection is finished with either way.
+        }
+    }
+
+    /* Starts a server from the command line: java GameServer [port] [search threads] [depth] [time budget in milliseconds]. The port
+        defaults to 4000, the search threads to one per processor, the depth to 10 and the budget to none. */
+    public static void main(String[] args) throws IOException{
+        int port = 4000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = 10;
+        long budget = 0;
+        if (args.length > 0){
+            port = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1){
+            threads = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2){
+            depth = Integer.parseInt(args[2]);
+        }
+        if (args.length > 3){
+            budget = Long.parseLong(args[3]);
+        }
+        GameServer server = new GameServer(port, threads, depth, budget, 10 * 60 * 1000);
+        System.out.println("Listening on port " + server.returnPort() + " with " + threads + " search threads");
+        server.serve();
+    }
+}
@@ -10,17 +10,22 @@ public class HumanPlayer implements Player{
 
 
 //Fields
-    private BufferedReader input;
+    /* Input is the BufferedReader that will read the player's input. System.in must be wrapped in InputStreamReader before it can be passed
+        to the BufferedReader. It is shared by every human player, as a reader of its own would read ahead and take the other player's moves
+        when two people play each other. */
+    private static final BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
 
-    // See comments on ComputerPlayer for explanation of choice of keywords. 
-    private static final char colour = 'r'; 
+    /* In the interactive game the human plays red by default, but can be given yellow (see PlayerFactory). It is final as it should not 
+        change during a game. */
+    private final char colour; 
 
 //Constructor
     public HumanPlayer(){
+        this('r');
+    }
 
-        /* Input is the BufferedReader that will read the player's input. System.in must be wrapped in InputStreamReader before it can be passed
-            to the BufferedReader. */
-        input = new BufferedReader(new InputStreamReader(System.in));
+    public HumanPlayer(char colour){
+        this.colour = colour;
     }
 
 //Methods
@@ -55,7 +60,7 @@ public class HumanPlayer implements Player{
                     System.out.println("Please input a number between 1 and " + board.returnWidth());
                 }
                 /* The column is checked to make sure it is not already full.*/
-                else if (board.boardArray[0][move] == 'r' || board.boardArray[0][move] == 'y'){
+                else if (!board.canPlay(move)){
                     System.out.println("That column is already full. Try another!");
                 }
                 else{
@@ -0,0 +1,230 @@
+import java.util.Arrays;
+
+/* LongBitBoard is the version of BitBoard (see BitBoard for the layout) that stores each player's counters in a single 64 bit number. It is
+    used whenever the board has no more than 64 bits counting the empty bit on top of each column, which covers every board up to 8x7. Every 
+    change to the board is a single OR or AND, and the win check is a few shifts and ANDs on one number, so this is the version the engines 
+    spend almost all their time in on the standard board. */
+
+public final class LongBitBoard extends BitBoard {
+
+//Fields
+    // discs[0] holds the red counters and discs[1] holds the yellow counters.
+    private final long[] discs;
+
+    /* The shifts for each direction a line can run in: vertical, horizontal and the two diagonals (see hasShortLine). winningShifts leaves out any 
+        direction where a line long enough to win would need a shift of 64 bits or more, as it cannot fit on the board, and Java only looks at 
+        the lowest six bits of a shift. */
+    private final int[] shifts;
+    private final int[] winningShifts;
+
+    /* The same shifts held as separate numbers, along with the second shift each direction needs for lines of four or fewer (see 
+        hasShortLine), so that the win check does not have to work them out or look them up in an array. */
+    private final int horizontal;
+    private final int downDiagonal;
+    private final int upDiagonal;
+    private final int verticalFill;
+    private final int horizontalFill;
+    private final int downDiagonalFill;
+    private final int upDiagonalFill;
+
+    // True for the standard 7x6 board with four in a row, which has its own win check with every shift fixed (see isFourInARow).
+    private final boolean standard;
+
+//Constructor
+    // Boards are created with BitBoard.create, which checks the board fits in 64 bits.
+    LongBitBoard(int width, int height, int connect){
+        super(width, height, connect);
+        discs = new long[2];
+        shifts = new int[] {1, columnBits, columnBits - 1, columnBits + 1};
+        int[] directions = new int[shifts.length];
+        int count = 0;
+        for (int i = 0; i < shifts.length; i++){
+            if ((long) (connect - 1) * shifts[i] < Long.SIZE){
+                directions[count] = shifts[i];
+                count++;
+            }
+        }
+        winningShifts = Arrays.copyOf(directions, count);
+        horizontal = columnBits;
+        downDiagonal = columnBits - 1;
+        upDiagonal = columnBits + 1;
+        verticalFill = connect - 2;
+        horizontalFill = (connect - 2) * horizontal;
+        downDiagonalFill = (connect - 2) * downDiagonal;
+        upDiagonalFill = (connect - 2) * upDiagonal;
+        standard = width == STANDARDWIDTH && height == STANDARDHEIGHT && connect == STANDARDCONNECT;
+    }
+
+//Accessors
+    public long getDiscs(char colour){
+        return discs[colourIndex(colour)];
+    }
+
+    // The mask has a bit set for every square that has a counter in it, regardless of colour.
+    public long getMask(){
+        return discs[0] | discs[1];
+    }
+
+    // Returns the bit for the square in the given column and row, where row 0 is the bottom of the board.
+    public long squareBit(int row, int column){
+        return 1L << squareIndex(column, row);
+    }
+
+//Methods
+    @Override
+    protected void setSquare(int colour, int square){
+        discs[colour] |= 1L << square;
+    }
+
+    @Override
+    protected int clearSquare(int square){
+        long bit = 1L << square;
+        int colour = 1;
+        if ((discs[0] & bit) != 0){
+            colour = 0;
+        }
+        discs[colour] &= ~bit;
+        return colour;
+    }
+
+    @Override
+    protected int colourAt(int square){
+        long bit = 1L << square;
+        if ((discs[0] & bit) != 0){
+            return 0;
+        }
+        if ((discs[1] & bit) != 0){
+            return 1;
+        }
+        return -1;
+    }
+
+    @Override
+    protected void copyDiscs(BitBoard boardToCopy){
+        LongBitBoard other = (LongBitBoard) boardToCopy;
+        discs[0] = other.discs[0];
+        discs[1] = other.discs[1];
+    }
+
+    @Override
+    public boolean hasWon(char colour){
+        return isWin(discs[colourIndex(colour)]);
+    }
+
+    /* Returns true if the given counters, stored in the same layout as this board, hold a winning line. This lets positions that are kept 
+        as numbers rather than as a board (see FlatDecisionTree) be checked in the same way. */
+    public boolean isWin(long board){
+        if (standard){
+            return isFourInARow(board);
+        }
+        if (connect <= 4){
+            return hasShortLine(board, 1, verticalFill) || hasShortLine(board, horizontal, horizontalFill) 
+                || hasShortLine(board, downDiagonal, downDiagonalFill) || hasShortLine(board, upDiagonal, upDiagonalFill);
+        }
+        return isLine(board);
+    }
+
+    /* Shifting the board by one bit moves each counter down a square, by columnBits moves it across a column, and by columnBits-1 and 
+        columnBits+1 moves it along each diagonal. ANDing the board with a shifted copy of itself leaves a bit set wherever there are two in a 
+        row, and doing the same again with double the shift leaves a bit wherever there are four. 
+
+        Almost every board needs four in a row or fewer, which always takes exactly two ANDs: the second shift is just enough to make up the
+        length needed, so two overlapping pairs one square apart make three, and a shift of 0 leaves the pairs as they are. This is checked 
+        with no loops, as the win check is called for every position the engines search. */
+    private static boolean hasShortLine(long board, int shift, int fill){
+        long pairs = board & (board >>> shift);
+        return (pairs & (pairs >>> fill)) != 0;
+    }
+
+    /* The win check for the standard board. This is the same as hasShortLine, but with the shifts written out as numbers (a column is 7 bits)
+        so that nothing needs to be read from the object. */
+    public static boolean isFourInARow(long board){
+        long pairs = board & (board >>> 1);
+        if ((pairs & (pairs >>> 2)) != 0){
+            return true;
+        }
+        pairs = board & (board >>> 7);
+        if ((pairs & (pairs >>> 14)) != 0){
+            return true;
+        }
+        pairs = board & (board >>> 6);
+        if ((pairs & (pairs >>> 12)) != 0){
+            return true;
+        }
+        pairs = board & (board >>> 8);
+        return (pairs & (pairs >>> 16)) != 0;
+    }
+
+    // Checks for a line of connect counters in each of the directions (see hasLine).
+    private boolean isLine(long board){
+        for (int i = 0; i < winningShifts.length; i++){
+            if (hasLine(board, winningShifts[i])){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Longer lines keep doubling the length checked until the next doubling would be too long, and the last step again shifts by just enough 
+        to make up the length needed: two overlapping lines of four, three squares apart, make a line of seven. */
+    private boolean hasLine(long board, int shift){
+        long run = board;
+        int length = 1;
+        while (2 * length < connect){
+            run &= run >>> (length * shift);
+            length *= 2;
+        }
+        return (run & (run >>> ((connect - length) * shift))) != 0;
+    }
+
+    /* Returns the length of the longest line, using the same shifts as the win check: each extra AND with a shifted copy of the board only 
+        leaves bits where the line is one longer. With four in a row or fewer there can be no line longer than three that is not a win, so 
+        only pairs and threes need looking for. */
+    @Override
+    public int longestRun(char colour){
+        return longestRun(discs[colourIndex(colour)]);
+    }
+
+    // The same as longestRun for a colour, for counters stored as a number in the same layout as this board.
+    public int longestRun(long board){
+        if (board == 0){
+            return 0;
+        }
+        if (isWin(board)){
+            return connect;
+        }
+        int longest = 1;
+        if (standard){
+            return Math.max(Math.max(shortRun(board, 1), shortRun(board, 7)), Math.max(shortRun(board, 6), shortRun(board, 8)));
+        }
+        if (connect <= 4){
+            return Math.max(Math.max(shortRun(board, 1), shortRun(board, horizontal)), 
+                Math.max(shortRun(board, downDiagonal), shortRun(board, upDiagonal)));
+        }
+        for (int i = 0; i < shifts.length; i++){
+            long run = board;
+            int length = 1;
+            while (length < connect - 1 && length * shifts[i] < Long.SIZE){
+                run &= board >>> (length * shifts[i]);
+                if (run == 0){
+                    break;
+                }
+                length++;
+            }
+            longest = Math.max(longest, length);
+        }
+        return longest;
+    }
+
+    // The longest line up to three in one direction, for boards where that is the longest line that is not a win.
+    private static int shortRun(long board, int shift){
+        long pairs = board & (board >>> shift);
+        if (pairs == 0){
+            return 1;
+        }
+        if ((pairs & (board >>> (2 * shift))) != 0){
+            return 3;
+        }
+        return 2;
+    }
+}
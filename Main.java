@@ -1,7 +1,21 @@
+import java.io.IOException;
+
 //The ConnectFour class provides the main function and starts the game. 
 
 public class Main {
+    /* The players can be chosen and tuned with settings such as --yellow.engine=alphabeta --depth=12 (see PlayerFactory). They are all
+        read before the game starts, so a mistake stops the program straight away rather than part way through a game. */
     public static void main(String[] args){
-		new Game();
+        PlayerFactory players;
+        try{
+            players = PlayerFactory.fromArguments(args);
+        }
+        catch(IllegalArgumentException | IOException e){
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java Main [--config=file] [--name=value ...]");
+            System.exit(1);
+            return;
+        }
+		new Game(players, null);
 	}
 }
\ No newline at end of file
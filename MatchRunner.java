@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/* MatchRunner plays a series of games between two players without any console input or output, for testing one engine against another.
+    Unlike Game, nothing is printed and no one is asked for input, so games run as fast as the players can move.
+
+    Games are played at the same time on a pool of threads. Players keep state between moves (and engines keep state during a search), so
+    a player cannot be shared between games that are running at once. Instead, new players are made for every game by the suppliers passed 
+    in. Each game starts with a number of random moves, so that two players that always choose the same move do not play the same game over 
+    and over. The random moves for each game come from the seed and the game's number, so a match can be repeated exactly. Each game can also
+    be written to a GameRecordWriter as it finishes, so that a match can be kept and gone through afterwards. */
+
+public class MatchRunner {
+
+//Fields
+    private final Supplier<Player> firstPlayers;
+    private final Supplier<Player> secondPlayers;
+    private final int threads;
+    private final int openingMoves;
+    private final long seed;
+
+    // The size of board the games are played on.
+    private final int width;
+    private final int height;
+    private final int connect;
+
+//Constructor
+    // Plays the games on the standard board.
+    public MatchRunner(Supplier<Player> firstPlayers, Supplier<Player> secondPlayers, int threads, int openingMoves, long seed){
+        this(firstPlayers, secondPlayers, BitBoard.STANDARDWIDTH, BitBoard.STANDARDHEIGHT, BitBoard.STANDARDCONNECT, threads, openingMoves, seed);
+    }
+
+    /* Plays the games between the players a PlayerFactory creates, on the board its settings give, with the colour it says moves first 
+        going first. */
+    public MatchRunner(PlayerFactory players, int threads, int openingMoves, long seed){
+        this(() -> players.createPlayer(players.returnFirstColour()), 
+            () -> players.createPlayer(DepthFirstSearch.opponentOf(players.returnFirstColour())), players.returnWidth(), 
+            players.returnHeight(), players.returnConnect(), threads, openingMoves, seed);
+    }
+
+    public MatchRunner(Supplier<Player> firstPlayers, Supplier<Player> secondPlayers, int width, int height, int connect, int threads, 
+        int openingMoves, long seed){
+        // Creating a board checks the size is one that can be played on, so a mistake is found before any games start.
+        BitBoard.create(width, height, connect);
+        if (threads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        if (openingMoves < 0){
+            throw new IllegalArgumentException("The number of opening moves cannot be negative");
+        }
+        this.firstPlayers = firstPlayers;
+        this.secondPlayers = secondPlayers;
+        this.threads = threads;
+        this.openingMoves = openingMoves;
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.connect = connect;
+    }
+
+//Methods
+    // Plays the given number of games and returns the combined results once they have all finished.
+    public MatchStatistics play(int games){
+        return play(games, null);
+    }
+
+    /* Plays the games and writes each one to the recorder as it finishes, in the order they finish rather than by game number. The recorder 
+        is not closed, so several matches can be written to the same file. */
+    public MatchStatistics play(int games, GameRecordWriter recorder){
+        MatchStatistics statistics = new MatchStatistics();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try{
+            List<Future<?>> running = new ArrayList<Future<?>>();
+            for (int game = 0; game < games; game++){
+                int gameNumber = game;
+                running.add(pool.submit(() -> playGame(gameNumber, statistics, recorder)));
+            }
+            for (Future<?> result : running){
+                result.get();
+            }
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        catch(ExecutionException e){
+            throw new IllegalStateException("A game failed", e.getCause());
+        }
+        finally{
+            pool.shutdownNow();
+        }
+        return statistics;
+    }
+
+    /* Plays a single game and records it. The game loop is the same as Game's, but the time each move takes and the nodes searched are 
+        recorded instead of the board being printed. The players are made for this game only, so they are closed when it ends, which stops
+        any threads their engines started. */
+    private void playGame(int gameNumber, MatchStatistics statistics, GameRecordWriter recorder){
+        Player[] player = {firstPlayers.get(), secondPlayers.get()};
+        try{
+            playGame(gameNumber, player, statistics, recorder);
+        }
+        finally{
+            player[0].close();
+            player[1].close();
+        }
+    }
+
+    private void playGame(int gameNumber, Player[] player, MatchStatistics statistics, GameRecordWriter recorder){
+        if (player[0].returnColour() == player[1].returnColour()){
+            throw new IllegalStateException("Both players have the colour " + player[0].returnColour());
+        }
+
+        long[] moveCounts = new long[2];
+        long[] moveNanos = new long[2];
+        long[] slowestMoveNanos = new long[2];
+        long[] nodes = new long[2];
+
+        Board board = new Board(width, height, connect);
+        SplittableRandom random = new SplittableRandom(seed + gameNumber);
+        int playerTurn = 0;
+        int moves = 0;
+        int winner = -1;
+        int[] playedMoves = new int[board.returnWidth() * board.returnHeight()];
+
+        while (!board.isBoardFull()){
+            int position;
+            if (moves < openingMoves){
+                position = randomMove(board, player[playerTurn].returnColour(), random);
+            }
+            else{
+                long start = System.nanoTime();
+                position = player[playerTurn].getMove(board);
+                long time = System.nanoTime() - start;
+                moveCounts[playerTurn]++;
+                moveNanos[playerTurn] += time;
+                slowestMoveNanos[playerTurn] = Math.max(slowestMoveNanos[playerTurn], time);
+                if (player[playerTurn] instanceof ComputerPlayer){
+                    nodes[playerTurn] += ((ComputerPlayer) player[playerTurn]).returnNodeCount();
+                }
+            }
+
+            if (position < 0 || position >= board.returnWidth()){
+                throw new IllegalStateException("Player " + player[playerTurn].returnColour() + " chose column " + position + ", which is off the board");
+            }
+            int row = board.makeMove(position, player[playerTurn].returnColour());
+            if (row < 0){
+                throw new IllegalStateException("Player " + player[playerTurn].returnColour() + " chose column " + position + ", which is full");
+            }
+            playedMoves[moves] = position;
+            moves++;
+
+            if (board.checkWin(row, position)){
+                winner = playerTurn;
+                break;
+            }
+            playerTurn = 1 - playerTurn;
+        }
+
+        statistics.recordGame(winner, moves, moveCounts, moveNanos, slowestMoveNanos, nodes);
+        if (recorder != null){
+            int result = GameRecord.DRAW;
+            if (winner >= 0){
+                result = GameRecord.winFor(player[winner].returnColour());
+            }
+            try{
+                recorder.write(new GameRecord(board.returnWidth(), board.returnHeight(), board.returnConnect(), player[0].returnName(), 
+                    player[1].returnName(), player[0].returnColour(), result, Arrays.copyOf(playedMoves, moves)));
+            }
+            catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /* Picks a random column for an opening move. Moves that would win straight away are avoided where possible, so that the opening does 
+        not decide the game. */
+    private static int randomMove(Board board, char colour, SplittableRandom random){
+        BitBoard bits = board.returnBitBoard();
+        int[] columns = new int[bits.getWidth()];
+        int count = 0;
+        int anyMove = -1;
+        for (int col = 0; col < bits.getWidth(); col++){
+            if (!bits.canPlay(col)){
+                continue;
+            }
+            anyMove = col;
+            bits.play(col, colour);
+            boolean wins = bits.hasWon(colour);
+            bits.undo();
+            if (!wins){
+                columns[count] = col;
+                count++;
+            }
+        }
+        if (count == 0){
+            return anyMove;
+        }
+        return columns[random.nextInt(count)];
+    }
+}
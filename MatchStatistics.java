@@ -0,0 +1,110 @@
+/* MatchStatistics collects the results of a series of games between two players (see MatchRunner). The first player is the one that moves
+    first in each game. Games can finish on several threads at once, so recording a game is synchronized, and the totals are read back once 
+    the match is over. */
+
+public class MatchStatistics {
+
+//Fields
+    private long firstWins;
+    private long secondWins;
+    private long draws;
+    private long totalMoves;
+
+    /* The move time and nodes are kept separately for each player, indexed 0 for the first player and 1 for the second. Nodes are only 
+        counted for computer players, as they are the only ones that search. */
+    private final long[] moveCounts;
+    private final long[] moveNanos;
+    private final long[] slowestMoveNanos;
+    private final long[] nodes;
+
+//Constructor
+    public MatchStatistics(){
+        moveCounts = new long[2];
+        moveNanos = new long[2];
+        slowestMoveNanos = new long[2];
+        nodes = new long[2];
+    }
+
+//Modifiers
+    /* Records a finished game. The winner is 0 or 1 for the first or second player, or -1 for a draw. The arrays hold each player's totals for
+        the game, in the same order as above. */
+    public synchronized void recordGame(int winner, int moves, long[] gameMoveCounts, long[] gameMoveNanos, long[] gameSlowestMoveNanos, long[] gameNodes){
+        if (winner == 0){
+            firstWins++;
+        }
+        else if (winner == 1){
+            secondWins++;
+        }
+        else{
+            draws++;
+        }
+        totalMoves += moves;
+        for (int player = 0; player < 2; player++){
+            moveCounts[player] += gameMoveCounts[player];
+            moveNanos[player] += gameMoveNanos[player];
+            slowestMoveNanos[player] = Math.max(slowestMoveNanos[player], gameSlowestMoveNanos[player]);
+            nodes[player] += gameNodes[player];
+        }
+    }
+
+//Accessors
+    public synchronized long returnGames(){
+        return firstWins + secondWins + draws;
+    }
+
+    public synchronized long returnFirstWins(){
+        return firstWins;
+    }
+
+    public synchronized long returnSecondWins(){
+        return secondWins;
+    }
+
+    public synchronized long returnDraws(){
+        return draws;
+    }
+
+    public synchronized double returnAverageGameLength(){
+        if (returnGames() == 0){
+            return 0;
+        }
+        return (double) totalMoves / returnGames();
+    }
+
+    // The average time the given player (0 or 1) took per move, in milliseconds.
+    public synchronized double returnAverageMoveMillis(int player){
+        if (moveCounts[player] == 0){
+            return 0;
+        }
+        return moveNanos[player] / 1e6 / moveCounts[player];
+    }
+
+    public synchronized double returnSlowestMoveMillis(int player){
+        return slowestMoveNanos[player] / 1e6;
+    }
+
+    public synchronized long returnNodes(int player){
+        return nodes[player];
+    }
+
+    // The number of nodes the given player searched per second of its own thinking time.
+    public synchronized double returnNodesPerSecond(int player){
+        if (moveNanos[player] == 0){
+            return 0;
+        }
+        return nodes[player] * 1e9 / moveNanos[player];
+    }
+
+    @Override
+    public synchronized String toString(){
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Games: %d  first wins: %d  second wins: %d  draws: %d  average length: %.1f moves%n",
+            returnGames(), firstWins, secondWins, draws, returnAverageGameLength()));
+        String[] names = {"First", "Second"};
+        for (int player = 0; player < 2; player++){
+            summary.append(String.format("%s player: %.3f ms/move average, %.3f ms slowest, %d nodes, %.0f nodes/s%n",
+                names[player], returnAverageMoveMillis(player), returnSlowestMoveMillis(player), nodes[player], returnNodesPerSecond(player)));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,483 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/* MonteCarloSearch chooses a move by Monte Carlo tree search rather than minimax. Instead of scoring positions with an evaluator, it plays
+    thousands of games out to the end with random moves (playouts) and counts how often each move goes on to win. The other engines are only
+    as good as their evaluator, and on the larger boards with longer lines no evaluator has been written that plays well, but playouts only
+    need the rules, so this engine plays just as well on any size of board and gets stronger the more playouts it is given.
+
+    The playouts are not spread evenly over the moves. The search grows a tree of the positions it has played through, and each playout walks
+    down the tree choosing at each position the move with the highest UCT value (see select): the share of its playouts that were won, plus a
+    bonus that shrinks as the move is tried more. Good moves are tried most, but no move is ever left untried for long, so over many playouts
+    the tree grows deepest along the lines of best play. Once a playout reaches the edge of the tree, the position there is added to the
+    tree with all of its moves once it has been reached a few times, and the rest of the game is played at random. The result is then added
+    to every position on the way down. The move returned is the one played out the most, which is the move the search is surest of.
+
+    The tree is kept in arrays made once when the engine is created (the arena), with each node stored as an index rather than an object, and
+    the playouts are played on a bitboard with play and undo. Nothing is created during the search, so it never waits for the garbage
+    collector. Each search starts a fresh tree by handing out the arena from the start again. If the arena fills up, no more nodes are added
+    and the playouts carry on through the tree there is.
+
+    The search runs for a time budget, or until a number of playouts have been played, whichever comes first. It can also use several
+    threads, which all play out from the one shared tree. Every count in the tree is updated atomically, so the threads never wait for each
+    other. To stop every thread following the same line at once, a playout adds its visit to each node as it walks down rather than when it
+    finishes, which counts as a loss (a virtual loss) until the result is added, so the next thread to arrive is steered towards another move. */
+
+public class MonteCarloSearch implements SearchEngine {
+
+//Fields
+    /* The weight of the bonus for trying moves that have had few playouts. The square root of two is the value from the theory behind UCT, for
+        results between 0 and 1. */
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    // A position is added to the tree once it has been reached this many times, so the tree does not fill up with nodes reached only once.
+    private static final int EXPANDVISITS = 4;
+
+    // Results are scored in half points so that they can be counted as whole numbers: 2 for a win, 1 for a draw and 0 for a loss.
+    private static final int WINPOINTS = 2;
+    private static final int DRAWPOINTS = 1;
+
+    // The clock is only read every few playouts, as reading it costs about as much as a short playout.
+    private static final int CLOCKCHECKINTERVAL = 16;
+
+    public static final int DEFAULTARENANODES = 1 << 21;
+
+    /* The arena. Node 0 is always the root, and each node's children are stored next to each other, starting at firstChild. firstChild is 0
+        while a node has no children (the root can never be a child), and EXPANDING while a thread is adding them. visits counts the playouts
+        through each node, including those still being played (the virtual losses), and points holds the half points they scored for the
+        player who made the node's move. */
+    private static final int EXPANDING = -1;
+    private final AtomicIntegerArray visits;
+    private final AtomicLongArray points;
+    private final AtomicIntegerArray firstChild;
+    private final byte[] childCount;
+    private final byte[] moveOf;
+    private final AtomicInteger nodesUsed;
+
+    private final long timeBudget;
+    private final long maxPlayouts;
+
+    // The workers that play the playouts. The first runs on the calling thread, and the others on the helper threads.
+    private final Worker[] workers;
+    private final ExecutorService pool;
+
+    /* The colour to move at the root, and the shared state of the search. stopped is set once the budget runs out or stop is called, and
+        tells every worker to finish its playout and return. */
+    private char rootColour;
+    private int[] centreOrder;
+    private long deadline;
+    private final AtomicLong playouts;
+    private volatile boolean stopped;
+    private int depthReached;
+
+//Constructor
+    // Searches for the given time on one thread.
+    public MonteCarloSearch(long timeBudgetMillis){
+        this(timeBudgetMillis, 0, 1);
+    }
+
+    public MonteCarloSearch(long timeBudgetMillis, long maxPlayouts, int threads){
+        this(timeBudgetMillis, maxPlayouts, threads, DEFAULTARENANODES);
+    }
+
+    /* A time budget or number of playouts of 0 means no limit of that kind, but one of them must be set. The arena takes about 18 bytes for each
+        node. */
+    public MonteCarloSearch(long timeBudgetMillis, long maxPlayouts, int threads, int arenaNodes){
+        if (timeBudgetMillis < 0 || maxPlayouts < 0){
+            throw new IllegalArgumentException("The time budget and number of playouts cannot be negative");
+        }
+        if (timeBudgetMillis == 0 && maxPlayouts == 0){
+            throw new IllegalArgumentException("The search needs a time budget or a number of playouts");
+        }
+        if (threads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        if (arenaNodes < BitBoard.MAXWIDTH + 1){
+            throw new IllegalArgumentException("The arena must have room for at least " + (BitBoard.MAXWIDTH + 1) + " nodes");
+        }
+        this.timeBudget = timeBudgetMillis * 1000000L;
+        this.maxPlayouts = maxPlayouts;
+        visits = new AtomicIntegerArray(arenaNodes);
+        points = new AtomicLongArray(arenaNodes);
+        firstChild = new AtomicIntegerArray(arenaNodes);
+        childCount = new byte[arenaNodes];
+        moveOf = new byte[arenaNodes];
+        nodesUsed = new AtomicInteger();
+        playouts = new AtomicLong();
+
+        // Each worker has a different seed, so that threads do not play the same random games.
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++){
+            workers[i] = new Worker(0x9E3779B97F4A7C15L * (i + 1));
+        }
+        if (threads > 1){
+            pool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "playout-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        else{
+            pool = null;
+        }
+    }
+
+//Accessors
+    public int returnThreads(){
+        return workers.length;
+    }
+
+    // The number of playouts in the last search. This is also the node count, as each playout is one walk from the root to the end of a game.
+    public long returnPlayouts(){
+        return playouts.get();
+    }
+
+    @Override
+    public long returnNodeCount(){
+        return playouts.get();
+    }
+
+    // The number of nodes in the tree at the end of the last search.
+    public int returnTreeSize(){
+        return nodesUsed.get();
+    }
+
+    // The deepest the tree reached below the root.
+    @Override
+    public int returnDepthReached(){
+        return depthReached;
+    }
+
+    /* The line the search is surest of: the most played move at the root, then the most played reply to it, and so on for as far as the tree
+        goes. */
+    @Override
+    public int[] returnPrincipalVariation(){
+        List<Integer> line = new ArrayList<Integer>();
+        int node = 0;
+        while (node < nodesUsed.get() && firstChild.get(node) > 0){
+            node = mostPlayedChild(node);
+            if (visits.get(node) == 0){
+                break;
+            }
+            line.add((int) moveOf[node]);
+        }
+        int[] variation = new int[line.size()];
+        for (int i = 0; i < variation.length; i++){
+            variation[i] = line.get(i);
+        }
+        return variation;
+    }
+
+    /* The share of the playouts through the move that the given colour won, counting a draw as half, from the last search. Returns -1 if the
+        move was not tried. */
+    public double returnWinRate(int column){
+        if (firstChild.get(0) <= 0){
+            return -1;
+        }
+        for (int child = firstChild.get(0); child < firstChild.get(0) + childCount[0]; child++){
+            if (moveOf[child] == column && visits.get(child) > 0){
+                return points.get(child) / (2.0 * visits.get(child));
+            }
+        }
+        return -1;
+    }
+
+//Methods
+    @Override
+    public int findMove(Board originalBoard, char colour){
+        return findMove(originalBoard.returnBitBoard(), colour);
+    }
+
+    // The same as findMove, for a bitboard. The position must not be changed until the search returns.
+    public int findMove(BitBoard position, char colour){
+        rootColour = colour;
+        playouts.set(0);
+        depthReached = 0;
+        stopped = false;
+        if (centreOrder == null || centreOrder.length != position.getWidth()){
+            centreOrder = AlphaBetaSearch.centreOrder(position.getWidth());
+        }
+
+        // There is no move to find once the game is over, and expanding the root would leave it with no children to choose between.
+        if (position.isFull() || position.hasWon('r') || position.hasWon('y')){
+            resetNode(0, -1);
+            nodesUsed.set(0);
+            return -1;
+        }
+
+        // A move that wins straight away needs no search, and playing it makes sure the search never misses one.
+        BitBoard board = workers[0].prepare(position);
+        for (int col = 0; col < board.getWidth(); col++){
+            if (board.canPlay(col)){
+                board.play(col, colour);
+                boolean won = board.hasWon(colour);
+                board.undo();
+                if (won){
+                    resetNode(0, -1);
+                    nodesUsed.set(0);
+                    return col;
+                }
+            }
+        }
+
+        resetNode(0, -1);
+        nodesUsed.set(1);
+        deadline = Long.MAX_VALUE;
+        if (timeBudget > 0){
+            deadline = System.nanoTime() + timeBudget;
+        }
+
+        List<Future<?>> running = new ArrayList<Future<?>>();
+        for (int i = 1; i < workers.length; i++){
+            Worker worker = workers[i];
+            worker.prepare(position);
+            running.add(pool.submit(worker::run));
+        }
+        workers[0].run();
+        stopped = true;
+        for (Future<?> helper : running){
+            try{
+                helper.get();
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            catch(ExecutionException e){
+                throw new IllegalStateException("A playout thread failed", e.getCause());
+            }
+        }
+        for (Worker worker : workers){
+            depthReached = Math.max(depthReached, worker.deepest);
+        }
+        return moveOf[mostPlayedChild(0)];
+    }
+
+    /* Asks a search running on another thread to stop. Every thread finishes the playout it is on, and the most played move so far is
+        returned, or -1 if the search is stopped before the first playout has expanded the root. */
+    @Override
+    public void stop(){
+        stopped = true;
+    }
+
+    // Stops the helper threads. The engine cannot be used after it has been shut down.
+    public void shutdown(){
+        if (pool != null){
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close(){
+        shutdown();
+    }
+
+    // Returns the child of an expanded node with the most playouts, taking the first (nearest the centre) on a tie.
+    private int mostPlayedChild(int node){
+        int first = firstChild.get(node);
+        int best = first;
+        for (int child = first + 1; child < first + childCount[node]; child++){
+            if (visits.get(child) > visits.get(best)){
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private void resetNode(int node, int move){
+        visits.set(node, 0);
+        points.set(node, 0);
+        childCount[node] = 0;
+        moveOf[node] = (byte) move;
+        firstChild.set(node, 0);
+    }
+
+    /* Adds a node's children, one for each column that is not full, in centre-first order. Only one thread can add them: the others see
+        EXPANDING and carry on with a random game from the node. The children are made before firstChild is set, so a thread that sees
+        firstChild also sees them. Returns false if the node could not be expanded. */
+    private boolean expand(int node, BitBoard board){
+        if (!firstChild.compareAndSet(node, 0, EXPANDING)){
+            return false;
+        }
+        int count = 0;
+        for (int col = 0; col < board.getWidth(); col++){
+            if (board.canPlay(col)){
+                count++;
+            }
+        }
+        int first = nodesUsed.getAndAdd(count);
+        if (first + count > visits.length()){
+            // The arena is full. The node stays EXPANDING, so no thread tries to add it again during this search.
+            nodesUsed.set(visits.length());
+            return false;
+        }
+        int child = first;
+        for (int i = 0; i < centreOrder.length; i++){
+            if (board.canPlay(centreOrder[i])){
+                resetNode(child, centreOrder[i]);
+                child++;
+            }
+        }
+        childCount[node] = (byte) count;
+        firstChild.set(node, first);
+        return true;
+    }
+
+    /* Chooses the child with the highest UCT value: its share of points won, plus EXPLORATION times the square root of the log of the
+        parent's playouts over the child's playouts. A child that has not been tried at all is always taken first. */
+    private int select(int node){
+        int first = firstChild.get(node);
+        double logVisits = Math.log(Math.max(1, visits.get(node)));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + childCount[node]; child++){
+            int childVisits = visits.get(child);
+            if (childVisits == 0){
+                return child;
+            }
+            double value = points.get(child) / (2.0 * childVisits) + EXPLORATION * Math.sqrt(logVisits / childVisits);
+            if (value > bestValue){
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /* A Worker plays playouts on its own board until the search is stopped. The board, the path down the tree and the random number generator
+        are all kept between playouts, so a playout creates nothing. */
+    private class Worker {
+        private BitBoard board;
+        private int[] path;
+        private long random;
+        private int deepest;
+
+        Worker(long seed){
+            random = seed;
+        }
+
+        // Sets the worker's board to the position, making a new board only if the size has changed, and returns it.
+        BitBoard prepare(BitBoard position){
+            if (board == null || !board.sameGeometry(position)){
+                board = BitBoard.create(position.getWidth(), position.getBoardHeight(), position.getConnect());
+                path = new int[board.getSquareCount() + 1];
+            }
+            board.copyBoard(position);
+            deepest = 0;
+            return board;
+        }
+
+        void run(){
+            int count = 0;
+            while (!stopped){
+                if (maxPlayouts > 0 && playouts.incrementAndGet() > maxPlayouts){
+                    playouts.decrementAndGet();
+                    stopped = true;
+                    break;
+                }
+                if (maxPlayouts == 0){
+                    playouts.incrementAndGet();
+                }
+                playout();
+                count++;
+                if (count % CLOCKCHECKINTERVAL == 0 && System.nanoTime() >= deadline){
+                    stopped = true;
+                }
+            }
+        }
+
+        /* Walks down the tree to a leaf, plays the rest of the game at random, and adds the result to every node on the way. result is the
+            colour that won, or the null character for a draw. */
+        private void playout(){
+            int rootMoves = board.getMoveCount();
+            char player = rootColour;
+            char result = 0;
+            boolean over = false;
+            int node = 0;
+            int depth = 0;
+            path[0] = 0;
+            visits.incrementAndGet(0);
+
+            while (true){
+                int first = firstChild.get(node);
+                if (first == 0 && (node == 0 || visits.get(node) >= EXPANDVISITS) && expand(node, board)){
+                    first = firstChild.get(node);
+                }
+                if (first <= 0){
+                    break;
+                }
+                node = select(node);
+                visits.incrementAndGet(node);
+                depth++;
+                path[depth] = node;
+                board.play(moveOf[node], player);
+                if (board.hasWon(player)){
+                    result = player;
+                    over = true;
+                    break;
+                }
+                player = DepthFirstSearch.opponentOf(player);
+                if (board.isFull()){
+                    over = true;
+                    break;
+                }
+            }
+            if (depth > deepest){
+                deepest = depth;
+            }
+
+            while (!over){
+                int col = randomMove();
+                board.play(col, player);
+                if (board.hasWon(player)){
+                    result = player;
+                    over = true;
+                }
+                else if (board.isFull()){
+                    over = true;
+                }
+                player = DepthFirstSearch.opponentOf(player);
+            }
+
+            // The node at each depth was reached by a move of the root colour if the depth is odd, and of the opponent if it is even.
+            char opponent = DepthFirstSearch.opponentOf(rootColour);
+            for (int i = 0; i <= depth; i++){
+                char mover = opponent;
+                if (i % 2 == 1){
+                    mover = rootColour;
+                }
+                if (result == mover){
+                    points.addAndGet(path[i], WINPOINTS);
+                }
+                else if (result == 0){
+                    points.addAndGet(path[i], DRAWPOINTS);
+                }
+            }
+
+            while (board.getMoveCount() > rootMoves){
+                board.undo();
+            }
+        }
+
+        // Picks a column that is not full with a xorshift generator, which is quick and needs no object.
+        private int randomMove(){
+            int width = board.getWidth();
+            while (true){
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                int col = (int) ((random >>> 1) % width);
+                if (board.canPlay(col)){
+                    return col;
+                }
+            }
+        }
+    }
+}
@@ -14,14 +14,15 @@ class Node {
     private int value;
 
     /* Constructor class. 
-        The node is initialised to store the player's move and the player's colour. */
-    public Node(int move, char player){
+        The node is initialised to store the player's move and the player's colour. The node's board is the same size as the board given, 
+        so that it can be copied from it. */
+    public Node(int move, char player, Board sizeOf){
         this.move = move;
         this.player = player;
         
         // The other variables are initialised to empty. Populating the values of the board is handled within the Board class.
         nodes = new ArrayList<Node>();
-        nodeBoard = new Board();
+        nodeBoard = new Board(sizeOf.returnWidth(), sizeOf.returnHeight(), sizeOf.returnConnect());
     }
 
     // Accessors to allow for effective encapuslation of Node while allowing other classes to acces fields where necessary.
@@ -0,0 +1,229 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/* The OpeningBook holds the exact scores of every position in the first few moves of the game, which are the slowest positions for the
+    Solver to work out. The book is generated once (see generate) and saved to a file, and the Solver looks positions up in it instead of 
+    searching them.
+
+    The file starts with a 16 byte header:
+
+        bytes  0-3   the characters C4BK
+        byte   4     board width
+        byte   5     board height
+        byte   6     the number of moves the book covers
+        byte   7     format version (1)
+        bytes  8-11  the number of entries
+        bytes 12-15  unused
+
+    followed by the entries, each of which is an 8 byte position key (see Solver.key) and a 1 byte score, sorted by key. A position and its
+    mirror image have the same score, so only the smaller of their two keys is stored (see Solver.canonicalKey), which makes the book about
+    half the size, and lookups turn the key into the smaller one before searching for it. The file is memory-mapped rather than read in, so 
+    loading a book is almost instant whatever its size, and the operating system only reads in the parts of the file that are used. 
+    Positions are found with a binary search on the key. */
+
+public class OpeningBook {
+
+//Fields
+    // Returned by lookup when the position is not in the book. This can never be a real score.
+    public static final int NOTFOUND = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x4334424B;
+    private static final int VERSION = 1;
+    private static final int HEADERSIZE = 16;
+    private static final int ENTRYSIZE = 9;
+
+    private final ByteBuffer buffer;
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final int entryCount;
+
+//Constructor
+    private OpeningBook(ByteBuffer buffer) throws IOException{
+        if (buffer.capacity() < HEADERSIZE || buffer.getInt(0) != MAGIC){
+            throw new IOException("Not an opening book file");
+        }
+        if (buffer.get(7) != VERSION){
+            throw new IOException("Unsupported opening book version " + buffer.get(7));
+        }
+        this.buffer = buffer;
+        this.width = buffer.get(4);
+        this.height = buffer.get(5);
+        this.depth = buffer.get(6);
+        this.entryCount = buffer.getInt(8);
+        if ((long) HEADERSIZE + (long) entryCount * ENTRYSIZE > buffer.capacity()){
+            throw new IOException("The opening book file is truncated");
+        }
+    }
+
+    // Maps the book file into memory. The mapping stays valid after the file channel is closed.
+    public static OpeningBook load(Path file) throws IOException{
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+//Accessors
+    public int returnWidth(){
+        return width;
+    }
+
+    public int returnHeight(){
+        return height;
+    }
+
+    // Positions with up to this many counters on the board are in the book.
+    public int returnDepth(){
+        return depth;
+    }
+
+    public int returnEntryCount(){
+        return entryCount;
+    }
+
+//Methods
+    // Returns the score for the position with the given key, or NOTFOUND if it is not in the book.
+    public int lookup(long key){
+        key = Solver.canonicalKey(key);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high){
+            int middle = (low + high) >>> 1;
+            int offset = HEADERSIZE + middle * ENTRYSIZE;
+            long middleKey = buffer.getLong(offset);
+            if (middleKey < key){
+                low = middle + 1;
+            }
+            else if (middleKey > key){
+                high = middle - 1;
+            }
+            else{
+                return buffer.get(offset + 8);
+            }
+        }
+        return NOTFOUND;
+    }
+
+    /* Generates a book covering every position with up to the given number of counters, solving each one with a Solver using the given 
+        table, and writes it to the file. Only positions the Solver can look up are included: the game must not be over, and the player to 
+        move must not be able to win straight away. This can take a long time, so it is meant to be run once and the file kept. */
+    public static void generate(int depth, Path file, TranspositionTable table) throws IOException{
+        Solver solver = new Solver(table, null);
+        KeyList keys = new KeyList();
+        collectPositions(0, 0, 0, depth, keys);
+        long[] sortedKeys = keys.toSortedArray();
+
+        byte[] scores = new byte[sortedKeys.length];
+        for (int i = 0; i < sortedKeys.length; i++){
+            long key = sortedKeys[i];
+            long mask = Solver.maskFromKey(key);
+            scores[i] = (byte) solver.solve(Solver.currentFromKey(key), mask, Long.bitCount(mask));
+        }
+        write(file, depth, sortedKeys, scores);
+    }
+
+    // Writes a book file holding the given keys, which must be sorted, and their scores.
+    static void write(Path file, int depth, long[] sortedKeys, byte[] scores) throws IOException{
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))){
+            output.writeInt(MAGIC);
+            output.writeByte(Solver.WIDTH);
+            output.writeByte(Solver.HEIGHT);
+            output.writeByte(depth);
+            output.writeByte(VERSION);
+            output.writeInt(sortedKeys.length);
+            output.writeInt(0);
+            for (int i = 0; i < sortedKeys.length; i++){
+                output.writeLong(sortedKeys[i]);
+                output.writeByte(scores[i]);
+            }
+        }
+    }
+
+    /* Walks every line of play up to the given depth and adds each position the book should hold to the list. A position is skipped (along 
+        with everything after it) if the player to move could win straight away, as the Solver never looks those up. Positions are added by
+        their canonical key, so once a position or its mirror image has been added, everything after it has been too. */
+    private static void collectPositions(long current, long mask, int moves, int depth, KeyList keys){
+        if (Solver.canWinNext(current, mask)){
+            return;
+        }
+        if (!keys.add(Solver.canonicalKey(Solver.key(current, mask))) || moves == depth){
+            return;
+        }
+        long possible = Solver.possibleMoves(mask);
+        for (int col = 0; col < Solver.WIDTH; col++){
+            long move = possible & Solver.columnMask(col);
+            if (move != 0){
+                collectPositions(current ^ mask, mask | move, moves + 1, depth, keys);
+            }
+        }
+    }
+
+    /* A growable set of position keys. The book can hold millions of positions, so the keys are kept in a primitive array, using open 
+        addressing to spot positions that have already been added. */
+    private static class KeyList {
+        private long[] slots = new long[1 << 16];
+        private int size = 0;
+
+        // Returns false if the key was already in the set. Keys are never 0 (see Solver.key), so 0 marks an empty slot.
+        boolean add(long key){
+            if (size * 2 >= slots.length){
+                grow();
+            }
+            int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & (slots.length - 1);
+            while (slots[index] != 0){
+                if (slots[index] == key){
+                    return false;
+                }
+                index = (index + 1) & (slots.length - 1);
+            }
+            slots[index] = key;
+            size++;
+            return true;
+        }
+
+        private void grow(){
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            size = 0;
+            for (long key : old){
+                if (key != 0){
+                    add(key);
+                }
+            }
+        }
+
+        long[] toSortedArray(){
+            long[] keys = new long[size];
+            int count = 0;
+            for (long key : slots){
+                if (key != 0){
+                    keys[count++] = key;
+                }
+            }
+            Arrays.sort(keys);
+            return keys;
+        }
+    }
+
+    /* Generates a book from the command line: java OpeningBook <depth> <file> [table size in megabytes]. */
+    public static void main(String[] args) throws IOException{
+        if (args.length < 2){
+            System.err.println("Usage: java OpeningBook <depth> <file> [table size in megabytes]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        long tableSize = 64;
+        if (args.length > 2){
+            tableSize = Long.parseLong(args[2]);
+        }
+        generate(depth, Paths.get(args[1]), new TranspositionTable(tableSize << 20, ReplacementPolicy.ALWAYS_REPLACE));
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/* ParallelSearch runs the alpha-beta search (see AlphaBetaSearch) on several threads at once, using the approach known as Lazy SMP. Every 
+    thread searches the same position, but they all share one transposition table. Whenever one thread finishes a position, the others can 
+    use the stored result instead of searching it themselves, and because the threads drift apart in the order they search moves (and every 
+    other helper searches one depth deeper) they end up working on different parts of the tree and filling in the table for each other.
+
+    The main search runs on the calling thread with the depth and time budget set in the constructor, and its move is the one returned. The
+    helper threads keep deepening until the main search finishes, and are then stopped. The table is lock-free (see TranspositionTable), so
+    the threads never wait on each other.
+
+    With one thread there are no helpers and the search is exactly the same as a single AlphaBetaSearch, so the result is deterministic. With
+    more threads the timing of the table updates changes from run to run, so the move can differ between runs when moves score similarly. */
+
+public class ParallelSearch implements SearchEngine {
+
+//Fields
+    private final TranspositionTable table;
+    private final AlphaBetaSearch mainSearch;
+    private final AlphaBetaSearch[] helpers;
+
+    // The helper threads are created once, when the engine is created, and reused for every move.
+    private final ExecutorService pool;
+
+    // The totals for all threads during the last search.
+    private long nodeCount;
+    private long leafCount;
+    private long cutoffCount;
+    private long tableHits;
+
+//Constructor
+    public ParallelSearch(int depth, TranspositionTable table, long timeBudgetMillis, int threads){
+        this(depth, table, timeBudgetMillis, threads, RunLengthEvaluator::new);
+    }
+
+    // Evaluators keep running totals for the board they are searching, so each thread needs its own, made by the given supplier.
+    public ParallelSearch(int depth, TranspositionTable table, long timeBudgetMillis, int threads, Supplier<Evaluator> evaluators){
+        if (threads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        if (table == null){
+            throw new IllegalArgumentException("A parallel search needs a transposition table to share between threads");
+        }
+        this.table = table;
+        this.mainSearch = new AlphaBetaSearch(depth, table, timeBudgetMillis, evaluators.get());
+
+        // Each helper has its own search, so that the killers, history and board are not shared between threads.
+        helpers = new AlphaBetaSearch[threads - 1];
+        for (int i = 0; i < helpers.length; i++){
+            helpers[i] = new AlphaBetaSearch(depth, table, 0, evaluators.get());
+        }
+
+        if (helpers.length > 0){
+            pool = Executors.newFixedThreadPool(helpers.length, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        else{
+            pool = null;
+        }
+    }
+
+//Accessors
+    public int returnThreads(){
+        return helpers.length + 1;
+    }
+
+    public TranspositionTable returnTable(){
+        return table;
+    }
+
+    // The number of positions visited by all threads during the last search.
+    @Override
+    public long returnNodeCount(){
+        return nodeCount;
+    }
+
+    @Override
+    public long returnLeafCount(){
+        return leafCount;
+    }
+
+    @Override
+    public long returnCutoffCount(){
+        return cutoffCount;
+    }
+
+    @Override
+    public long returnTableHits(){
+        return tableHits;
+    }
+
+    // The depth and principal variation come from the main search, as that is the search the move comes from.
+    @Override
+    public int returnDepthReached(){
+        return mainSearch.returnDepthReached();
+    }
+
+    @Override
+    public int[] returnPrincipalVariation(){
+        return mainSearch.returnPrincipalVariation();
+    }
+
+//Methods
+    @Override
+    public int findMove(Board originalBoard, char colour){
+        table.newSearch();
+        mainSearch.clearStop();
+        BitBoard position = originalBoard.returnBitBoard();
+
+        List<Future<?>> running = new ArrayList<Future<?>>();
+        /* The searches only read the position passed in (each copies it to its own board), and all of them have finished before this method 
+            returns, so the position can be shared between the threads. */
+        for (int i = 0; i < helpers.length; i++){
+            AlphaBetaSearch helper = helpers[i];
+            int helperNumber = i + 1;
+            helper.clearStop();
+            running.add(pool.submit(() -> helper.search(position, colour, helperNumber)));
+        }
+
+        int move = mainSearch.search(position, colour, 0);
+
+        // Once the main search has its move the helpers are no longer needed, and each one is stopped and waited for before returning.
+        for (AlphaBetaSearch helper : helpers){
+            helper.stop();
+        }
+        nodeCount = mainSearch.returnNodeCount();
+        leafCount = mainSearch.returnLeafCount();
+        cutoffCount = mainSearch.returnCutoffCount();
+        tableHits = mainSearch.returnTableHits();
+        for (int i = 0; i < helpers.length; i++){
+            try{
+                running.get(i).get();
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            catch(ExecutionException e){
+                throw new IllegalStateException("A helper search failed", e.getCause());
+            }
+            nodeCount += helpers[i].returnNodeCount();
+            leafCount += helpers[i].returnLeafCount();
+            cutoffCount += helpers[i].returnCutoffCount();
+            tableHits += helpers[i].returnTableHits();
+        }
+        return move;
+    }
+
+    /* Asks a search running on another thread to finish. Only the main search needs stopping, as the helpers are stopped as soon as it 
+        returns. */
+    @Override
+    public void stop(){
+        mainSearch.stop();
+    }
+
+    // Stops the helper threads. The engine cannot be used after it has been shut down.
+    public void shutdown(){
+        if (pool != null){
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close(){
+        shutdown();
+    }
+}
@@ -0,0 +1,212 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/* Perft (performance test, a name borrowed from chess programming) counts every line of play from a position to a given depth: the number of
+    different ways the next depth moves can be played, with a game that is won or drawn before then stopping where it ends. The counts only
+    depend on the rules, so they are known exactly, and a count that comes out different means play, undo or the win check has gone wrong
+    somewhere. Counting does nothing but play moves, check for wins and take them back, so the speed of a perft run is also the raw speed of
+    the board, separate from the evaluators and move ordering that make up the rest of a search.
+
+    The counts can be worked out on one thread (count) or spread over several (countParallel), where the moves from the first two levels are
+    shared out between the threads and each counts the lines below its moves on its own board. Both must give the same count. main runs both
+    from the empty standard board, or from a move string, and checks the results against the counts in KNOWNCOUNTS. */
+
+public class Perft {
+
+//Fields
+    /* The number of lines of each length from the empty standard board. Up to six moves every column can always be played, so the counts are
+        powers of seven. After that lines are lost to full columns, and from the seventh move to games that have already been won. */
+    static final long[] KNOWNCOUNTS = {1L, 7L, 49L, 343L, 2401L, 16807L, 117649L, 823536L, 5673234L, 39394572L, 268031646L, 1844590828L};
+
+    private final ExecutorService pool;
+    private final int threads;
+
+    // The number of moves played by the last count, which is the number of positions it visited not counting the one it started from.
+    private long nodeCount;
+
+//Constructor
+    // Counts on a single thread.
+    public Perft(){
+        this(1);
+    }
+
+    public Perft(int threads){
+        if (threads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.threads = threads;
+        if (threads > 1){
+            pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "perft");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        else{
+            pool = null;
+        }
+    }
+
+//Accessors
+    public long returnNodeCount(){
+        return nodeCount;
+    }
+
+//Methods
+    // Counts the lines of the given length from the position, with the given colour to move. The board is left as it was.
+    public long count(BitBoard board, char colour, int depth){
+        long[] moves = new long[1];
+        long lines = perft(board, colour, depth, moves);
+        nodeCount = moves[0];
+        return lines;
+    }
+
+    /* The same as count, with the work spread over the threads. The lines from each position two moves ahead are counted as a separate task
+        on a copy of the board, so there are many more tasks than threads and they finish at about the same time. */
+    public long countParallel(BitBoard position, char colour, int depth){
+        if (pool == null || depth < 3){
+            return count(position, colour, depth);
+        }
+        BitBoard board = position.copy();
+        char opponent = DepthFirstSearch.opponentOf(colour);
+        List<Future<long[]>> tasks = new ArrayList<Future<long[]>>();
+        long lines = 0;
+        long moves = 0;
+        for (int first = 0; first < board.getWidth(); first++){
+            if (!board.canPlay(first)){
+                continue;
+            }
+            board.play(first, colour);
+            moves++;
+            if (board.hasWon(colour) || board.isFull()){
+                board.undo();
+                continue;
+            }
+            for (int second = 0; second < board.getWidth(); second++){
+                if (!board.canPlay(second)){
+                    continue;
+                }
+                board.play(second, opponent);
+                moves++;
+                if (!board.hasWon(opponent) && !board.isFull()){
+                    BitBoard task = board.copy();
+                    tasks.add(pool.submit(() -> {
+                        long[] taskMoves = new long[1];
+                        long taskLines = perft(task, colour, depth - 2, taskMoves);
+                        return new long[] {taskLines, taskMoves[0]};
+                    }));
+                }
+                board.undo();
+            }
+            board.undo();
+        }
+        for (Future<long[]> task : tasks){
+            try{
+                long[] result = task.get();
+                lines += result[0];
+                moves += result[1];
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while counting", e);
+            }
+            catch(ExecutionException e){
+                throw new IllegalStateException("A count failed", e.getCause());
+            }
+        }
+        nodeCount = moves;
+        return lines;
+    }
+
+    // Stops the threads. The harness cannot count in parallel after it has been shut down.
+    public void shutdown(){
+        if (pool != null){
+            pool.shutdownNow();
+        }
+    }
+
+    /* Plays every move, counts the lines below it and takes it back. A move that wins or fills the board ends the line, so it only counts if
+        it is the last move of the line. On the last move nothing is played after it, so there is no need to check it for a win. */
+    private static long perft(BitBoard board, char colour, int depth, long[] moves){
+        if (depth == 0){
+            return 1;
+        }
+        char opponent = DepthFirstSearch.opponentOf(colour);
+        long lines = 0;
+        for (int col = 0; col < board.getWidth(); col++){
+            if (!board.canPlay(col)){
+                continue;
+            }
+            board.play(col, colour);
+            moves[0]++;
+            if (depth == 1){
+                lines++;
+            }
+            else if (!board.hasWon(colour) && !board.isFull()){
+                lines += perft(board, opponent, depth - 1, moves);
+            }
+            board.undo();
+        }
+        return lines;
+    }
+
+    /* Runs the harness from the command line: java Perft [depth] [threads] [moves]. Each depth up to the given one (9 by default) is counted
+        on one thread and then on the given number of threads (one per processor by default), printing the count, the time and the moves
+        played per second. From the empty standard board the counts are checked against the known ones, and the program exits with an error
+        if any are wrong. A starting position can be given as a move string (see PositionKey.fromMoves). */
+    public static void main(String[] args){
+        int maxDepth = 9;
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        String start = "";
+        if (args.length > 0){
+            maxDepth = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1){
+            threadCount = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2){
+            start = args[2];
+        }
+        PositionKey key = PositionKey.fromMoves(start);
+        BitBoard board = key.toBoard();
+        char colour = key.returnColourToMove();
+
+        Perft single = new Perft();
+        Perft parallel = new Perft(threadCount);
+        boolean failed = false;
+        for (int depth = 1; depth <= maxDepth; depth++){
+            long begin = System.nanoTime();
+            long lines = single.count(board, colour, depth);
+            double singleSeconds = (System.nanoTime() - begin) / 1e9;
+            begin = System.nanoTime();
+            long parallelLines = parallel.countParallel(board, colour, depth);
+            double parallelSeconds = (System.nanoTime() - begin) / 1e9;
+
+            String check = "";
+            if (parallelLines != lines){
+                check = "  MISMATCH: " + parallelLines + " in parallel";
+                failed = true;
+            }
+            else if (start.isEmpty() && depth < KNOWNCOUNTS.length){
+                if (lines == KNOWNCOUNTS[depth]){
+                    check = "  ok";
+                }
+                else{
+                    check = "  WRONG: expected " + KNOWNCOUNTS[depth];
+                    failed = true;
+                }
+            }
+            System.out.printf("depth %2d  %,15d lines  %8.3f s  %,13.0f moves/s  %d threads %8.3f s  %,13.0f moves/s%s%n", depth, lines,
+                singleSeconds, single.returnNodeCount() / singleSeconds, threadCount, parallelSeconds,
+                parallel.returnNodeCount() / parallelSeconds, check);
+        }
+        parallel.shutdown();
+        if (failed){
+            System.exit(1);
+        }
+    }
+}
@@ -6,4 +6,14 @@ public interface Player {
     int getMove(Board board);
     
     char returnColour();
+
+    // The name stored for the player in game records (see GameRecord). By default this is the name of the class.
+    default String returnName(){
+        return getClass().getSimpleName();
+    }
+
+    /* Called once the game is over, so that a player that thinks on other threads can stop them. The player cannot be used afterwards. Games
+        create new players every time (see PlayerFactory), so every game closes its players when it ends, however it ends. */
+    default void close(){
+    }
 }
@@ -0,0 +1,357 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/* PlayerFactory creates the players for a game from settings given on the command line or in a properties file, so that which engine plays
+    and how it is tuned can be changed without changing the code. All the settings are read and checked when the factory is created, and any
+    books or tablebases are loaded then, so a mistake is reported at startup and creating a player later only calls the constructors with
+    settings already worked out. Nothing is looked up while the game is being played.
+
+    The settings are:
+
+        first       the colour that moves first, red or yellow (red)
+        width       the number of columns on the board, up to 15 (7)
+        height      the number of rows on the board, up to 15 (6)
+        connect     the number of counters in a row needed to win (4)
+        red         human or computer (human)
+        yellow      human or computer (computer)
+        engine      original, tree, depthfirst, alphabeta, parallel, session, solver or montecarlo (original)
+        depth       the search depth, up to the number of squares (4 for original and tree, 6 for depthfirst, 10 for the alpha-beta engines)
+        time        the time budget for each move in milliseconds (none, or 1000 for montecarlo)
+        playouts    the playouts for each move for montecarlo (none)
+        table       the transposition table size in megabytes up to 8192, or 0 for none (64)
+        threads     the number of threads for parallel and montecarlo (1)
+        evaluator   runlength or threat (runlength)
+        ponder      true to think on the opponent's time (false)
+        book        an opening book file for solver
+        tablebase   an endgame tablebase file for alphabeta and session
+
+    Each engine uses the settings that apply to it and ignores the rest. Any of the engine settings can be given for one colour only by
+    putting the colour in front, so yellow.engine=montecarlo and red.engine=alphabeta plays the two engines against each other. On the
+    command line each setting is given as --name=value, and --config=file reads them from a properties file first, so that the file holds
+    the normal settings and the command line changes a few. */
+
+public class PlayerFactory {
+
+//Fields
+    private static final Set<String> ENGINESETTINGS = new HashSet<String>(Arrays.asList("engine", "depth", "time", "playouts", "table",
+        "threads", "evaluator", "ponder", "book", "tablebase"));
+    private static final List<String> ENGINES = Arrays.asList("original", "tree", "depthfirst", "alphabeta", "parallel", "session", "solver",
+        "montecarlo");
+
+    private static final Set<String> GAMESETTINGS = new HashSet<String>(Arrays.asList("first", "red", "yellow", "width", "height",
+        "connect"));
+
+    private final char firstColour;
+    private final int width;
+    private final int height;
+    private final int connect;
+    private final PlayerSettings red;
+    private final PlayerSettings yellow;
+
+//Constructor
+    // Creates a factory with the default settings: a human playing red against the original computer player, with red moving first.
+    public PlayerFactory(){
+        this(new Properties());
+    }
+
+    public PlayerFactory(Properties settings){
+        for (String name : settings.stringPropertyNames()){
+            String setting = name;
+            if (name.startsWith("red.") || name.startsWith("yellow.")){
+                setting = name.substring(name.indexOf('.') + 1);
+                if (!ENGINESETTINGS.contains(setting)){
+                    throw new IllegalArgumentException("Unknown setting " + name);
+                }
+            }
+            else if (!ENGINESETTINGS.contains(setting) && !GAMESETTINGS.contains(setting)){
+                throw new IllegalArgumentException("Unknown setting " + name);
+            }
+        }
+        firstColour = colourSetting(settings.getProperty("first", "red"));
+        width = (int) PlayerSettings.number(settings, "", "width", BitBoard.STANDARDWIDTH, 1, Integer.MAX_VALUE);
+        height = (int) PlayerSettings.number(settings, "", "height", BitBoard.STANDARDHEIGHT, 1, Integer.MAX_VALUE);
+        connect = (int) PlayerSettings.number(settings, "", "connect", BitBoard.STANDARDCONNECT, 1, Integer.MAX_VALUE);
+        BitBoard board = BitBoard.create(width, height, connect);
+        red = new PlayerSettings(settings, 'r', "human", board);
+        yellow = new PlayerSettings(settings, 'y', "computer", board);
+    }
+
+    /* Reads the settings from command line arguments (see above). A --config file is read first, whichever order the arguments are in. */
+    public static PlayerFactory fromArguments(String[] args) throws IOException{
+        Properties settings = new Properties();
+        Properties arguments = new Properties();
+        for (String arg : args){
+            String setting = arg;
+            if (setting.startsWith("--")){
+                setting = setting.substring(2);
+            }
+            int equals = setting.indexOf('=');
+            if (equals < 1){
+                throw new IllegalArgumentException("Settings are given as --name=value, not " + arg);
+            }
+            arguments.setProperty(setting.substring(0, equals), setting.substring(equals + 1));
+        }
+        String config = (String) arguments.remove("config");
+        if (config != null){
+            try (Reader reader = Files.newBufferedReader(Paths.get(config), StandardCharsets.UTF_8)){
+                settings.load(reader);
+            }
+        }
+        settings.putAll(arguments);
+        return new PlayerFactory(settings);
+    }
+
+//Accessors
+    public char returnFirstColour(){
+        return firstColour;
+    }
+
+    public int returnWidth(){
+        return width;
+    }
+
+    public int returnHeight(){
+        return height;
+    }
+
+    public int returnConnect(){
+        return connect;
+    }
+
+    // Returns true if the given colour is played by a person rather than the computer.
+    public boolean isHuman(char colour){
+        return settingsFor(colour).human;
+    }
+
+//Methods
+    // Creates an empty board of the size the game is played on.
+    public Board createBoard(){
+        return new Board(width, height, connect);
+    }
+
+    /* Creates the players for a game in the order they move. Each call creates new players with their own engines, so games can be played
+        at the same time with players from the same factory. */
+    public Player[] createPlayers(){
+        return new Player[] {createPlayer(firstColour), createPlayer(DepthFirstSearch.opponentOf(firstColour))};
+    }
+
+    public Player createPlayer(char colour){
+        PlayerSettings settings = settingsFor(colour);
+        if (settings.human){
+            return new HumanPlayer(colour);
+        }
+        ComputerPlayer player = new ComputerPlayer(settings.createEngine(), colour);
+        if (settings.ponder){
+            player.setPondering(true);
+        }
+        return player;
+    }
+
+    private PlayerSettings settingsFor(char colour){
+        if (colour == 'r'){
+            return red;
+        }
+        return yellow;
+    }
+
+    private static char colourSetting(String value){
+        String colour = value.trim().toLowerCase(Locale.ROOT);
+        if (colour.equals("red") || colour.equals("r")){
+            return 'r';
+        }
+        if (colour.equals("yellow") || colour.equals("y")){
+            return 'y';
+        }
+        throw new IllegalArgumentException("The colour must be red or yellow, not " + value);
+    }
+
+    /* The settings for one colour, worked out once when the factory is created. A setting given for the colour takes the place of the same
+        setting given for both. */
+    private static class PlayerSettings {
+        private final boolean human;
+        private final String engine;
+        private final int depth;
+        private final long timeMillis;
+        private final long playouts;
+        private final int tableMegabytes;
+        private final int threads;
+        private final boolean threatEvaluator;
+        private final boolean ponder;
+        private final OpeningBook book;
+        private final Tablebase tablebase;
+
+        PlayerSettings(Properties settings, char colour, String defaultPlayer, BitBoard board){
+            String prefix = "red.";
+            String player = settings.getProperty("red", defaultPlayer);
+            if (colour == 'y'){
+                prefix = "yellow.";
+                player = settings.getProperty("yellow", defaultPlayer);
+            }
+            player = player.trim().toLowerCase(Locale.ROOT);
+            if (!player.equals("human") && !player.equals("computer")){
+                throw new IllegalArgumentException("Each colour must be played by a human or the computer, not " + player);
+            }
+            human = player.equals("human");
+
+            engine = setting(settings, prefix, "engine", "original").toLowerCase(Locale.ROOT);
+            if (!ENGINES.contains(engine)){
+                throw new IllegalArgumentException("Unknown engine " + engine + ", expected one of " + ENGINES);
+            }
+            int defaultDepth = 10;
+            if (engine.equals("original") || engine.equals("tree")){
+                defaultDepth = 4;
+            }
+            else if (engine.equals("depthfirst")){
+                defaultDepth = 6;
+            }
+            long defaultTime = 0;
+            if (engine.equals("montecarlo")){
+                defaultTime = 1000;
+            }
+            // No search can go deeper than the number of squares on the board, as the game is over once they are all filled.
+            depth = (int) number(settings, prefix, "depth", defaultDepth, 1, board.getWidth() * board.getBoardHeight());
+            timeMillis = number(settings, prefix, "time", defaultTime, 0, Integer.MAX_VALUE);
+            playouts = number(settings, prefix, "playouts", 0, 0, Integer.MAX_VALUE);
+            tableMegabytes = (int) number(settings, prefix, "table", 64, 0, TranspositionTable.MAXBYTEBUDGET >> 20);
+            threads = (int) number(settings, prefix, "threads", 1, 1, Integer.MAX_VALUE);
+            ponder = Boolean.parseBoolean(setting(settings, prefix, "ponder", "false"));
+
+            String evaluator = setting(settings, prefix, "evaluator", "runlength").toLowerCase(Locale.ROOT);
+            if (!evaluator.equals("runlength") && !evaluator.equals("threat")){
+                throw new IllegalArgumentException("The evaluator must be runlength or threat, not " + evaluator);
+            }
+            threatEvaluator = evaluator.equals("threat");
+
+            // The rest of the settings are only checked for players that will use them, so a human can be given the engine settings too.
+            if (human){
+                book = null;
+                tablebase = null;
+                return;
+            }
+            if (engine.equals("original") && colour != 'y'){
+                throw new IllegalArgumentException("The original engine can only play yellow; use tree to play red");
+            }
+            boolean standard = board.getWidth() == BitBoard.STANDARDWIDTH && board.getBoardHeight() == BitBoard.STANDARDHEIGHT
+                && board.getConnect() == BitBoard.STANDARDCONNECT;
+            if (engine.equals("solver") && !standard){
+                throw new IllegalArgumentException("The solver only plays on the standard 7x6 board");
+            }
+            if (engine.equals("tree") && !(board instanceof LongBitBoard)){
+                throw new IllegalArgumentException("The tree engine only plays on boards that fit in 64 bits, up to 8x7");
+            }
+            if ((engine.equals("parallel") || engine.equals("solver")) && tableMegabytes == 0){
+                throw new IllegalArgumentException("The " + engine + " engine needs a transposition table");
+            }
+            if (engine.equals("montecarlo") && timeMillis == 0 && playouts == 0){
+                throw new IllegalArgumentException("The montecarlo engine needs a time budget or a number of playouts");
+            }
+            book = loadBook(setting(settings, prefix, "book", null));
+            tablebase = loadTablebase(setting(settings, prefix, "tablebase", null));
+            if (tablebase != null && !tablebase.fits(board)){
+                throw new IllegalArgumentException("The tablebase is for a different size of board");
+            }
+        }
+
+        private static String setting(Properties settings, String prefix, String name, String defaultValue){
+            String value = settings.getProperty(prefix + name, settings.getProperty(name, defaultValue));
+            if (value == null){
+                return null;
+            }
+            return value.trim();
+        }
+
+        private static long number(Properties settings, String prefix, String name, long defaultValue, long smallest, long largest){
+            String value = setting(settings, prefix, name, null);
+            if (value == null){
+                return defaultValue;
+            }
+            long number;
+            try{
+                number = Long.parseLong(value);
+            }
+            catch(NumberFormatException e){
+                throw new IllegalArgumentException("The " + name + " setting must be a number, not " + value);
+            }
+            if (number < smallest || number > largest){
+                throw new IllegalArgumentException("The " + name + " setting must be between " + smallest + " and " + largest);
+            }
+            return number;
+        }
+
+        // Loads an opening book from the given file, or returns null if no file is given.
+        private static OpeningBook loadBook(String file){
+            if (file == null || file.isEmpty()){
+                return null;
+            }
+            try{
+                return OpeningBook.load(Paths.get(file));
+            }
+            catch(IOException e){
+                throw new IllegalArgumentException("Could not load the opening book " + file + ": " + e.getMessage(), e);
+            }
+        }
+
+        private static Tablebase loadTablebase(String file){
+            if (file == null || file.isEmpty()){
+                return null;
+            }
+            try{
+                return Tablebase.load(Paths.get(file));
+            }
+            catch(IOException e){
+                throw new IllegalArgumentException("Could not load the tablebase " + file + ": " + e.getMessage(), e);
+            }
+        }
+
+        private TranspositionTable createTable(){
+            if (tableMegabytes == 0){
+                return null;
+            }
+            return new TranspositionTable(tableMegabytes * (1L << 20), ReplacementPolicy.DEPTH_PREFERRED);
+        }
+
+        private Evaluator createEvaluator(){
+            if (threatEvaluator){
+                return new ThreatEvaluator();
+            }
+            return new RunLengthEvaluator();
+        }
+
+        private AlphaBetaSearch createAlphaBeta(){
+            AlphaBetaSearch search = new AlphaBetaSearch(depth, createTable(), timeMillis, createEvaluator());
+            search.setTablebase(tablebase);
+            return search;
+        }
+
+        // Creates a new engine with these settings. Each player gets its own, as engines keep state between searches.
+        SearchEngine createEngine(){
+            switch (engine){
+                case "tree":
+                    return new FlatTreeSearch(depth);
+                case "depthfirst":
+                    return new DepthFirstSearch(depth, createEvaluator());
+                case "alphabeta":
+                    return createAlphaBeta();
+                case "parallel":
+                    return new ParallelSearch(depth, createTable(), timeMillis, threads, this::createEvaluator);
+                case "session":
+                    return new EngineSession(createAlphaBeta());
+                case "solver":
+                    return new Solver(createTable(), book);
+                case "montecarlo":
+                    return new MonteCarloSearch(timeMillis, playouts, threads);
+                default:
+                    return new TreeSearch(depth);
+            }
+        }
+    }
+}
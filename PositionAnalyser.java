@@ -0,0 +1,261 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* The PositionAnalyser finds the best move and its score for a large number of positions, for when the engine is used as a library rather
+    than to play a game. Positions are given as text, one per line, in either of two forms:
+
+    - A move string: the columns played from the empty board, counting from 1, with red moving first. Columns above 9 are written a to f, so
+      "4453" is red in column 4, yellow in column 4, red in 5 and yellow in 3.
+    - A position key, written in hexadecimal starting with 0x (see PositionKey). This is the key the Solver and the opening book use, and
+      works on any board up to 8x7. The player to move follows from the number of counters, as red always moves first.
+
+    Everything that is slow to set up is set up once and reused for every position: each thread has its own AlphaBetaSearch and its own
+    board, which is cleared rather than replaced between positions, and all the threads share one transposition table for the whole run.
+    Positions from the same games share many of the same positions further down the tree, so later positions are often found partly solved.
+    Scores in the table are stored by the number of moves left to search and wins by the number of counters on the board, so an entry is
+    just as correct for any position that reaches it.
+
+    Positions are handed out in batches. Within a batch each thread takes the next position as soon as it finishes the last one, so a few
+    slow positions do not hold up the others, and the results are written out in the same order as the positions were read. Only one batch
+    is in memory at a time, so any number of positions can be streamed through. */
+
+public class PositionAnalyser {
+
+//Fields
+    // The number of positions read and analysed at once.
+    private static final int BATCHSIZE = 4096;
+
+    private final TranspositionTable table;
+    private final Worker[] workers;
+    private final ExecutorService pool;
+
+//Constructor
+    // Analyses positions on the standard board, searching each to the given depth.
+    public PositionAnalyser(int depth, TranspositionTable table, int threads){
+        this(BitBoard.STANDARDWIDTH, BitBoard.STANDARDHEIGHT, BitBoard.STANDARDCONNECT, depth, 0, table, threads);
+    }
+
+    /* With a time budget each position is searched with iterative deepening until the budget runs out or the depth is reached (see
+        AlphaBetaSearch), and with a budget of 0 every position is searched to the full depth. */
+    public PositionAnalyser(int width, int height, int connect, int depth, long timeBudgetMillis, TranspositionTable table, int threads){
+        if (threads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        if (table == null){
+            throw new IllegalArgumentException("The analyser needs a transposition table to share between threads");
+        }
+        this.table = table;
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++){
+            workers[i] = new Worker(new AlphaBetaSearch(depth, table, timeBudgetMillis), BitBoard.create(width, height, connect));
+        }
+        pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "position-analyser");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+//Accessors
+    public int returnThreads(){
+        return workers.length;
+    }
+
+    public TranspositionTable returnTable(){
+        return table;
+    }
+
+//Methods
+    // Analyses a single position.
+    public PositionAnalysis analyse(String position){
+        return analyse(Arrays.asList(position)).get(0);
+    }
+
+    /* Analyses a batch of positions on all the threads and returns the results in the same order. A position that cannot be read, or where
+        the game is already over, gives a result with an error rather than stopping the batch. */
+    public List<PositionAnalysis> analyse(List<String> positions){
+        PositionAnalysis[] results = new PositionAnalysis[positions.size()];
+        AtomicInteger next = new AtomicInteger();
+        table.newSearch();
+
+        List<Future<?>> running = new ArrayList<Future<?>>();
+        for (Worker worker : workers){
+            running.add(pool.submit(() -> {
+                int index = next.getAndIncrement();
+                while (index < results.length){
+                    results[index] = worker.analyse(positions.get(index));
+                    index = next.getAndIncrement();
+                }
+            }));
+        }
+        for (Future<?> result : running){
+            try{
+                result.get();
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while analysing positions", e);
+            }
+            catch(ExecutionException e){
+                throw new IllegalStateException("A position could not be analysed", e.getCause());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /* Reads positions from the input, one per line, and writes a result line for each to the output (see PositionAnalysis.toString). Blank
+        lines are skipped. Returns the number of positions analysed. */
+    public long analyse(BufferedReader input, Writer output) throws IOException{
+        long count = 0;
+        List<String> batch = new ArrayList<String>(BATCHSIZE);
+        String line = input.readLine();
+        while (line != null){
+            line = line.trim();
+            if (!line.isEmpty()){
+                batch.add(line);
+            }
+            line = input.readLine();
+            if (batch.size() == BATCHSIZE || (line == null && !batch.isEmpty())){
+                for (PositionAnalysis result : analyse(batch)){
+                    output.write(result.toString());
+                    output.write('\n');
+                }
+                count += batch.size();
+                batch.clear();
+            }
+        }
+        output.flush();
+        return count;
+    }
+
+    // Stops the threads. The analyser cannot be used after it has been shut down.
+    public void shutdown(){
+        pool.shutdownNow();
+    }
+
+    /* Sets up the board with the given position, clearing whatever was on it before. The board must be empty or hold an earlier position.
+        An IllegalArgumentException is thrown if the text is not a position that can be played on this board, or if the game is over. */
+    static void setUpPosition(BitBoard board, String position){
+        while (board.getMoveCount() > 0){
+            board.undo();
+        }
+        if (position.startsWith("0x") || position.startsWith("0X")){
+            setUpKey(board, position);
+        }
+        else{
+            setUpMoves(board, position);
+        }
+        if (board.hasWon('r') || board.hasWon('y')){
+            throw new IllegalArgumentException("the game has already been won");
+        }
+        if (board.isFull()){
+            throw new IllegalArgumentException("the board is full");
+        }
+    }
+
+    private static void setUpMoves(BitBoard board, String moves){
+        for (int i = 0; i < moves.length(); i++){
+            int col = Character.digit(moves.charAt(i), 16) - 1;
+            if (col < 0 || col >= board.getWidth()){
+                throw new IllegalArgumentException("'" + moves.charAt(i) + "' is not a column on the board");
+            }
+            if (!board.canPlay(col)){
+                throw new IllegalArgumentException("move " + (i + 1) + " is in column " + (col + 1) + ", which is full");
+            }
+            char colour = colourToMove(board);
+            board.play(col, colour);
+            if (i < moves.length() - 1 && board.hasWon(colour)){
+                throw new IllegalArgumentException("the game was won at move " + (i + 1));
+            }
+        }
+    }
+
+    /* Sets up a position key (see PositionKey). A key can be for any board up to 8x7, as long as it is the size of the board. */
+    private static void setUpKey(BitBoard board, String text){
+        board.copyBoard(PositionKey.parse(text, board.getWidth(), board.getBoardHeight(), board.getConnect()).toBoard());
+    }
+
+    // Red always moves first, so the player to move follows from the number of counters on the board.
+    private static char colourToMove(BitBoard board){
+        if (board.getMoveCount() % 2 == 0){
+            return 'r';
+        }
+        return 'y';
+    }
+
+    /* Reads positions from a file, or from the standard input if no file is given, and writes the results to the standard output. The
+        depth defaults to 10, the number of threads to one per processor and the table to 256 megabytes. */
+    public static void main(String[] args) throws IOException{
+        if (args.length > 4){
+            System.err.println("Usage: java PositionAnalyser [depth] [threads] [table size in megabytes] [file]");
+            System.exit(1);
+        }
+        int depth = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long tableSize = 256;
+        if (args.length > 0){
+            depth = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1){
+            threads = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2){
+            tableSize = Long.parseLong(args[2]);
+        }
+
+        PositionAnalyser analyser = new PositionAnalyser(depth, new TranspositionTable(tableSize << 20, ReplacementPolicy.DEPTH_PREFERRED),
+            threads);
+        BufferedReader input;
+        if (args.length > 3 && !args[3].equals("-")){
+            input = Files.newBufferedReader(Paths.get(args[3]), StandardCharsets.UTF_8);
+        }
+        else{
+            input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        try (BufferedReader reader = input;
+            Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))){
+            analyser.analyse(reader, output);
+        }
+        finally{
+            analyser.shutdown();
+        }
+    }
+
+    /* A Worker is the search and board used by one thread. Each worker is only given to one thread per batch, so its search and board are
+        never used by two threads at once. */
+    private static class Worker {
+        private final AlphaBetaSearch search;
+        private final BitBoard board;
+
+        Worker(AlphaBetaSearch search, BitBoard board){
+            this.search = search;
+            this.board = board;
+        }
+
+        PositionAnalysis analyse(String position){
+            try{
+                setUpPosition(board, position);
+            }
+            catch(IllegalArgumentException e){
+                return PositionAnalysis.failure(position, e.getMessage());
+            }
+            int move = search.search(board, colourToMove(board), 0);
+            return PositionAnalysis.result(position, move, search.returnScore(), search.returnDepthReached(), search.returnNodeCount());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/* A PositionAnalysis is the result of analysing one position with PositionAnalyser: the best move for the player to move and its score, or
+    the reason the position could not be analysed. The position is kept as it was given, so results can be matched up with the input. */
+
+public class PositionAnalysis {
+
+//Fields
+    private final String position;
+    private final int move;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final String error;
+
+//Constructor
+    private PositionAnalysis(String position, int move, int score, int depth, long nodes, String error){
+        this.position = position;
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.error = error;
+    }
+
+    // The move is a column counting from 0. The score is from the point of view of the player to move (see AlphaBetaSearch.returnScore).
+    public static PositionAnalysis result(String position, int move, int score, int depth, long nodes){
+        return new PositionAnalysis(position, move, score, depth, nodes, null);
+    }
+
+    public static PositionAnalysis failure(String position, String error){
+        return new PositionAnalysis(position, -1, 0, 0, 0, error);
+    }
+
+//Accessors
+    public String returnPosition(){
+        return position;
+    }
+
+    public int returnMove(){
+        return move;
+    }
+
+    public int returnScore(){
+        return score;
+    }
+
+    public int returnDepth(){
+        return depth;
+    }
+
+    public long returnNodes(){
+        return nodes;
+    }
+
+    // The reason the position could not be analysed, or null if it was.
+    public String returnError(){
+        return error;
+    }
+
+    public boolean isError(){
+        return error != null;
+    }
+
+//Methods
+    /* The line written for the result by PositionAnalyser: the position, the best column counting from 1 (as in move strings) and the score,
+        separated by tabs. A position that could not be analysed has "error" and the reason instead. */
+    @Override
+    public String toString(){
+        if (error != null){
+            return position + "\terror\t" + error;
+        }
+        return position + "\t" + (move + 1) + "\t" + score;
+    }
+}
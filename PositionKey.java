@@ -0,0 +1,304 @@
+import java.util.HashSet;
+import java.util.Set;
+
+/* A PositionKey identifies a position in a single number, so positions can be stored, compared, written down and set up again without
+    going through a board. It is the same key the solver, opening book and tablebase use (see Solver.key): the counters of the player to
+    move, plus the mask of every counter, plus the bottom square of every column. Adding the bottom squares to the mask leaves a bit just
+    above the top counter of each column, which gives the height of the column, and the player's counters below it tell the two colours apart.
+    Two positions have the same key exactly when they have the same counters in the same squares, whatever order the moves were played in.
+
+    Keys fit in 64 bits for every board that fits in a LongBitBoard (up to 8x7). The key only says whose turn it is, not which colour they
+    are, so when a position is set up from a key red is taken to have moved first, as it is in move strings.
+
+    A key can be turned into a move string and back (see toMoves and fromMoves), and is written as a hexadecimal number starting with 0x (see
+    toString and parse), the same form PositionAnalyser reads. */
+
+public final class PositionKey {
+
+//Fields
+    private final int width;
+    private final int height;
+    private final int connect;
+    private final long key;
+
+//Constructor
+    private PositionKey(int width, int height, int connect, long key){
+        this.width = width;
+        this.height = height;
+        this.connect = connect;
+        this.key = key;
+    }
+
+    // Returns the key of the position on the board.
+    public static PositionKey of(BitBoard board){
+        LongBitBoard bits = longBoard(board);
+        long current = bits.getDiscs(colourToMove(board));
+        long mask = bits.getMask();
+        return new PositionKey(board.getWidth(), board.getBoardHeight(), board.getConnect(), current + mask + bottomMask(board));
+    }
+
+    // Returns the key of the position reached by the given moves on the standard board (see fromMoves below).
+    public static PositionKey fromMoves(String moves){
+        return fromMoves(moves, BitBoard.STANDARDWIDTH, BitBoard.STANDARDHEIGHT, BitBoard.STANDARDCONNECT);
+    }
+
+    /* Returns the key of the position reached by the given moves, one character per move, with columns counted from 1 and hexadecimal digits
+        for columns above 9, and red moving first. An IllegalArgumentException is thrown if a move is not on the board, is in a full column, or
+        comes after the game has been won. */
+    public static PositionKey fromMoves(String moves, int width, int height, int connect){
+        BitBoard board = BitBoard.create(width, height, connect);
+        longBoard(board);
+        char colour = 'r';
+        for (int i = 0; i < moves.length(); i++){
+            int col = Character.digit(moves.charAt(i), 16) - 1;
+            if (col < 0 || col >= width){
+                throw new IllegalArgumentException("'" + moves.charAt(i) + "' is not a column on the board");
+            }
+            if (!board.canPlay(col)){
+                throw new IllegalArgumentException("move " + (i + 1) + " is in column " + (col + 1) + ", which is full");
+            }
+            if (board.hasWon(DepthFirstSearch.opponentOf(colour))){
+                throw new IllegalArgumentException("the game was won at move " + i);
+            }
+            board.play(col, colour);
+            colour = DepthFirstSearch.opponentOf(colour);
+        }
+        return of(board);
+    }
+
+    // Reads a key written by toString for the standard board.
+    public static PositionKey parse(String text){
+        return parse(text, BitBoard.STANDARDWIDTH, BitBoard.STANDARDHEIGHT, BitBoard.STANDARDCONNECT);
+    }
+
+    /* Reads a key written by toString for a board of the given size. An IllegalArgumentException is thrown if the text is not a key for a
+        position on the board that red could have reached by moving first. */
+    public static PositionKey parse(String text, int width, int height, int connect){
+        if (!text.startsWith("0x") && !text.startsWith("0X")){
+            throw new IllegalArgumentException("'" + text + "' is not a position key starting with 0x");
+        }
+        long key;
+        try{
+            key = Long.parseUnsignedLong(text.substring(2), 16);
+        }
+        catch(NumberFormatException e){
+            throw new IllegalArgumentException("'" + text + "' is not a hexadecimal key");
+        }
+        return fromKey(key, width, height, connect);
+    }
+
+    // Wraps a key worked out elsewhere (see Solver.key), checking it is a valid position on a board of the given size.
+    public static PositionKey fromKey(long key, int width, int height, int connect){
+        longBoard(BitBoard.create(width, height, connect));
+        PositionKey position = new PositionKey(width, height, connect, key);
+
+        // Every column must have its height bit set, and there must be nothing above the last column.
+        int columnBits = height + 1;
+        long unused = 0;
+        if (width * columnBits < Long.SIZE){
+            unused = -1L << (width * columnBits);
+        }
+        boolean valid = (key & unused) == 0;
+        for (int col = 0; col < width; col++){
+            if (((key >>> (col * columnBits)) & ((1L << columnBits) - 1)) == 0){
+                valid = false;
+            }
+        }
+        if (!valid){
+            throw new IllegalArgumentException("0x" + Long.toHexString(key) + " is not a position key for a " + width + "x" + height + " board");
+        }
+        long current = position.returnCurrent();
+        long mask = position.returnMask();
+        if ((current & ~mask) != 0 || Long.bitCount(current) != Long.bitCount(mask) / 2){
+            throw new IllegalArgumentException("0x" + Long.toHexString(key) + " does not have the right number of counters for each player");
+        }
+        return position;
+    }
+
+//Accessors
+    public long returnKey(){
+        return key;
+    }
+
+    public int returnWidth(){
+        return width;
+    }
+
+    public int returnHeight(){
+        return height;
+    }
+
+    public int returnConnect(){
+        return connect;
+    }
+
+    // The counters of every player, in the bitboard layout.
+    public long returnMask(){
+        int columnBits = height + 1;
+        long mask = 0;
+        for (int col = 0; col < width; col++){
+            long bottom = 1L << (col * columnBits);
+            long column = (key >>> (col * columnBits)) & ((1L << columnBits) - 1);
+            mask |= (Long.highestOneBit(column) << (col * columnBits)) - bottom;
+        }
+        return mask;
+    }
+
+    // The counters of the player to move.
+    public long returnCurrent(){
+        return key - returnMask() - bottomMask(width, height);
+    }
+
+    public int returnMoveCount(){
+        return Long.bitCount(returnMask());
+    }
+
+    // The colour to move, taking red to have moved first.
+    public char returnColourToMove(){
+        if (returnMoveCount() % 2 == 0){
+            return 'r';
+        }
+        return 'y';
+    }
+
+//Methods
+    // Returns the key of the position mirrored left to right.
+    public PositionKey mirror(){
+        int columnBits = height + 1;
+        long column = (1L << columnBits) - 1;
+        long mirrored = 0;
+        for (int col = 0; col < width; col++){
+            mirrored |= ((key >>> (col * columnBits)) & column) << ((width - 1 - col) * columnBits);
+        }
+        return new PositionKey(width, height, connect, mirrored);
+    }
+
+    /* Returns whichever of the position and its mirror image has the smaller key, so that both give the same key (as in the opening book and
+        tablebase). */
+    public PositionKey canonical(){
+        PositionKey mirrored = mirror();
+        if (mirrored.key < key){
+            return mirrored;
+        }
+        return this;
+    }
+
+    /* Sets up the position on a new board by playing the moves from toMoves, so the board holds a game that could really have been played,
+        and its moves can be undone one at a time back to the start. */
+    public BitBoard toBoard(){
+        BitBoard board = BitBoard.create(width, height, connect);
+        String moves = toMoves();
+        char colour = 'r';
+        for (int i = 0; i < moves.length(); i++){
+            board.play(Character.digit(moves.charAt(i), 16) - 1, colour);
+            colour = DepthFirstSearch.opponentOf(colour);
+        }
+        return board;
+    }
+
+    /* Returns a move string that reaches the position, with red moving first. A key does not keep the order the moves were played in, so
+        this is any order that could have happened in a game: the counters are taken off the top of the columns, each time by the player who
+        moved last, without ever leaving a position where the game had already been won. Some orders lead to a dead end, in which case the
+        search backs up and tries another, remembering positions that are dead ends so they are not tried twice. An IllegalArgumentException
+        is thrown if no game could reach the position. */
+    public String toMoves(){
+        LongBitBoard layout = (LongBitBoard) BitBoard.create(width, height, connect);
+        long current = returnCurrent();
+        long mask = returnMask();
+        long opponent = mask ^ current;
+        if (layout.isWin(current)){
+            throw new IllegalArgumentException("No game can reach " + this + ", as the player to move has already won");
+        }
+        char[] moves = new char[returnMoveCount()];
+        if (!takeBack(layout, current, opponent, moves, moves.length, new HashSet<Long>())){
+            throw new IllegalArgumentException("No game can reach " + this);
+        }
+        return new String(moves);
+    }
+
+    /* Takes one of the last mover's counters off the top of a column and carries on from there, filling in the moves from the end. When the
+        last mover has a winning line, the counter taken off must break every one of their lines, as only the last move can have won. */
+    private boolean takeBack(LongBitBoard layout, long toMove, long lastMover, char[] moves, int count, Set<Long> deadEnds){
+        if (count == 0){
+            return true;
+        }
+        long mask = toMove | lastMover;
+        long positionKey = toMove + mask + bottomMask(width, height);
+        if (deadEnds.contains(positionKey)){
+            return false;
+        }
+        int columnBits = height + 1;
+        for (int col = 0; col < width; col++){
+            long column = mask & (((1L << height) - 1) << (col * columnBits));
+            if (column == 0){
+                continue;
+            }
+            long top = Long.highestOneBit(column);
+            if ((lastMover & top) == 0){
+                continue;
+            }
+            long before = lastMover ^ top;
+            if (layout.isWin(before)){
+                continue;
+            }
+            moves[count - 1] = Character.forDigit(col + 1, 16);
+            if (takeBack(layout, before, toMove, moves, count - 1, deadEnds)){
+                return true;
+            }
+        }
+        deadEnds.add(positionKey);
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object other){
+        if (!(other instanceof PositionKey)){
+            return false;
+        }
+        PositionKey position = (PositionKey) other;
+        return key == position.key && width == position.width && height == position.height && connect == position.connect;
+    }
+
+    @Override
+    public int hashCode(){
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L);
+    }
+
+    // The key as a hexadecimal number starting with 0x, which parse reads back.
+    @Override
+    public String toString(){
+        return "0x" + Long.toHexString(key);
+    }
+
+    /* Works out whose turn it is on a board from the colour of the last counter played, so it is right whichever colour moved first. Red is
+        to move on an empty board. */
+    static char colourToMove(BitBoard board){
+        if (board.getMoveCount() == 0){
+            return 'r';
+        }
+        int column = board.getMove(board.getMoveCount() - 1);
+        char last = board.getSquare(board.getBoardHeight() - board.getHeight(column), column);
+        return DepthFirstSearch.opponentOf(last);
+    }
+
+    // The bottom square of every column, in the bitboard layout.
+    static long bottomMask(BitBoard board){
+        return bottomMask(board.getWidth(), board.getBoardHeight());
+    }
+
+    static long bottomMask(int width, int height){
+        long mask = 0;
+        for (int col = 0; col < width; col++){
+            mask |= 1L << (col * (height + 1));
+        }
+        return mask;
+    }
+
+    private static LongBitBoard longBoard(BitBoard board){
+        if (!(board instanceof LongBitBoard)){
+            throw new IllegalArgumentException("Position keys only work on boards of up to 64 bits, not " + board.getWidth() + "x"
+                + board.getBoardHeight());
+        }
+        return (LongBitBoard) board;
+    }
+}
@@ -0,0 +1,12 @@
+/* ReplacementPolicy decides what happens when a transposition table slot that holds one position is needed for another (see 
+    TranspositionTable). */
+
+public enum ReplacementPolicy {
+
+    /* The new entry always takes the slot. This keeps the table full of recent positions, which are the most likely to be looked up again. */
+    ALWAYS_REPLACE,
+
+    /* The new entry only takes the slot if it was searched at least as deep as the entry already there, or the entry there is from an earlier
+        search. Deep entries save the most work when they are found again, so they are kept in preference to shallow ones. */
+    DEPTH_PREFERRED
+}
@@ -0,0 +1,48 @@
+/* RunLengthEvaluator scores a board by the longest line each player has, using the same weightings as the decision tree search. The 
+    opponent's score is taken away from the player's, so a board where the opponent is close to winning scores badly. The longest line is
+    worked out from the whole board each time, so there is nothing to update as moves are played. */
+
+public class RunLengthEvaluator implements Evaluator {
+
+    /* The weightings for the longest line of counters, indexed by how many counters short of a win it is. On the standard board a line of four
+        is worth 1000, three is worth 100, two is worth 3 and one is worth 1. Lines further from a win on boards with a longer winning line 
+        are worth the same as a single counter. */
+    private static final int[] RUNWEIGHTS = {1000, 100, 3, 1};
+
+    /* The weightings indexed by the length of the line, for the winning length the evaluator was last reset with. They are only worked out 
+        again if it is reset with a board that needs a different length. */
+    private int connect;
+    private int[] weights;
+
+    public RunLengthEvaluator(){
+        setConnect(BitBoard.STANDARDCONNECT);
+    }
+
+    @Override
+    public void reset(BitBoard board){
+        if (board.getConnect() != connect){
+            setConnect(board.getConnect());
+        }
+    }
+
+    @Override
+    public void play(int column, int row, char colour){
+    }
+
+    @Override
+    public void undo(int column, int row, char colour){
+    }
+
+    @Override
+    public int evaluate(BitBoard board, char colour){
+        return weights[board.longestRun(colour)] - weights[board.longestRun(DepthFirstSearch.opponentOf(colour))];
+    }
+
+    private void setConnect(int newConnect){
+        connect = newConnect;
+        weights = new int[connect + 1];
+        for (int run = 1; run <= connect; run++){
+            weights[run] = RUNWEIGHTS[Math.min(connect - run, RUNWEIGHTS.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/* SearchEngine is an interface for the different ways the computer player can search for a move. The computer player holds an engine and
+    asks it for a move each turn, so the way the search is carried out can be swapped without changing ComputerPlayer or the game loop. This
+    also allows two engines to be compared against each other on the same positions. */
+
+public interface SearchEngine {
+
+    /* Returns the column the given colour should play in on the given board. The board passed in must be left as it was found, so engines
+        that play moves during the search must work on their own copy. */
+    int findMove(Board board, char colour);
+
+    // Returns the number of positions visited while finding the last move, which gives a measure of how much work the search did.
+    long returnNodeCount();
+
+    /* The methods below give more detail about the last search for the search statistics (see SearchStatistics). Not every engine keeps track
+        of all of them, so each returns 0 (or an empty line) unless the engine provides it. */
+
+    // The number of positions scored by an evaluator at the end of the search, rather than searched further.
+    default long returnLeafCount(){
+        return 0;
+    }
+
+    // The number of times the search stopped looking at the moves in a position because one was already good enough (see AlphaBetaSearch).
+    default long returnCutoffCount(){
+        return 0;
+    }
+
+    // The number of positions found in the transposition table.
+    default long returnTableHits(){
+        return 0;
+    }
+
+    // The number of moves ahead the last search looked.
+    default int returnDepthReached(){
+        return 0;
+    }
+
+    // The line of best play the last search found, starting with the move it returned.
+    default int[] returnPrincipalVariation(){
+        return new int[0];
+    }
+
+    /* Asks a search running on another thread to finish as soon as it can (see ComputerPlayer's pondering). Engines that cannot be stopped
+        part way through ignore this, and the caller waits for their search to finish. */
+    default void stop(){
+    }
+
+    /* Releases anything the engine holds on to between searches, such as a pool of threads. The engine cannot be used afterwards. The
+        player holding the engine calls this when its game is over (see Player.close); engines that hold nothing ignore it. */
+    default void close(){
+    }
+}
@@ -0,0 +1,54 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/* SearchEvent is a Java Flight Recorder event for a single move by a computer player, carrying the same numbers as SearchStatistics. The 
+    events are written by SearchEventListener, and only cost anything while a recording with the event enabled is running. The stack trace
+    is turned off as it is always the same listener call. */
+
+@Name("connectfour.Search")
+@Label("Search")
+@Category("Connect Four")
+@Description("A move found by a computer player's search engine")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Colour")
+    char colour;
+
+    @Label("Move Number")
+    @Description("The number of counters on the board before the move")
+    int moveNumber;
+
+    @Label("Column")
+    int move;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Leaf Evaluations")
+    long leafEvaluations;
+
+    @Label("Cutoffs")
+    long cutoffs;
+
+    @Label("Table Hits")
+    long tableHits;
+
+    @Label("Depth Reached")
+    int depthReached;
+
+    @Label("Search Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Principal Variation")
+    String principalVariation;
+}
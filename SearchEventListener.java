@@ -0,0 +1,28 @@
+/* SearchEventListener is a search listener (see SearchListener) that records every move as a Java Flight Recorder event (see SearchEvent).
+    When no recording is running, or the event is turned off, isEnabled is false and nothing is filled in or written. */
+
+public class SearchEventListener implements SearchListener {
+
+    public SearchEventListener(){
+    }
+
+    @Override
+    public void searchFinished(SearchStatistics statistics){
+        SearchEvent event = new SearchEvent();
+        if (!event.isEnabled()){
+            return;
+        }
+        event.engine = statistics.returnEngine();
+        event.colour = statistics.returnColour();
+        event.moveNumber = statistics.returnMoveNumber();
+        event.move = statistics.returnMove();
+        event.nodes = statistics.returnNodes();
+        event.leafEvaluations = statistics.returnLeafEvaluations();
+        event.cutoffs = statistics.returnCutoffs();
+        event.tableHits = statistics.returnTableHits();
+        event.depthReached = statistics.returnDepthReached();
+        event.elapsed = statistics.returnElapsedNanos();
+        event.principalVariation = statistics.returnPrincipalVariationText();
+        event.commit();
+    }
+}
@@ -0,0 +1,9 @@
+/* A SearchListener is told about every move a computer player makes, along with the statistics for the search that found it (see 
+    SearchStatistics). Listeners are added to a ComputerPlayer with addListener. They are called on the thread that asked for the move, 
+    straight after the search finishes, so they should return quickly. SearchMetrics and SearchEventListener are two listeners that pass 
+    the numbers on to JMX and Java Flight Recorder. */
+
+public interface SearchListener {
+
+    void searchFinished(SearchStatistics statistics);
+}
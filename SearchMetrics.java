@@ -0,0 +1,157 @@
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/* SearchMetrics is a search listener (see SearchListener) that keeps running totals of the searches it is told about, and makes them 
+    available over JMX so that they can be watched in a tool such as JConsole or collected by a monitoring system. Add it to one or more 
+    computer players and call register to publish it. Moves can be recorded on several threads at once (for example in MatchRunner), so 
+    recording and reading the totals is synchronized. */
+
+public class SearchMetrics implements SearchListener, SearchMetricsMBean {
+
+//Fields
+    private long moveCount;
+    private long totalNodes;
+    private long totalLeafEvaluations;
+    private long totalCutoffs;
+    private long totalTableHits;
+    private long totalDepth;
+    private long totalElapsedNanos;
+    private long maxElapsedNanos;
+
+    // The last move recorded, or null if there has not been one.
+    private SearchStatistics last;
+
+//Constructor
+    public SearchMetrics(){
+    }
+
+//Methods
+    @Override
+    public synchronized void searchFinished(SearchStatistics statistics){
+        moveCount++;
+        totalNodes += statistics.returnNodes();
+        totalLeafEvaluations += statistics.returnLeafEvaluations();
+        totalCutoffs += statistics.returnCutoffs();
+        totalTableHits += statistics.returnTableHits();
+        totalDepth += statistics.returnDepthReached();
+        totalElapsedNanos += statistics.returnElapsedNanos();
+        maxElapsedNanos = Math.max(maxElapsedNanos, statistics.returnElapsedNanos());
+        last = statistics;
+    }
+
+    /* Registers the metrics with the platform MBean server, under the name connectfour:type=SearchMetrics,name= followed by the given name,
+        and returns the name used. Each set of metrics needs a different name, for example one for each engine being watched. */
+    public ObjectName register(String name) throws JMException{
+        ObjectName objectName = ObjectName.getInstance("connectfour:type=SearchMetrics,name=" + ObjectName.quote(name));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    public static void unregister(ObjectName objectName) throws JMException{
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+//Accessors
+    @Override
+    public synchronized long getMoveCount(){
+        return moveCount;
+    }
+
+    @Override
+    public synchronized long getTotalNodes(){
+        return totalNodes;
+    }
+
+    @Override
+    public synchronized long getTotalLeafEvaluations(){
+        return totalLeafEvaluations;
+    }
+
+    @Override
+    public synchronized long getTotalCutoffs(){
+        return totalCutoffs;
+    }
+
+    @Override
+    public synchronized long getTotalTableHits(){
+        return totalTableHits;
+    }
+
+    @Override
+    public synchronized double getAverageElapsedMillis(){
+        if (moveCount == 0){
+            return 0;
+        }
+        return totalElapsedNanos / 1000000.0 / moveCount;
+    }
+
+    @Override
+    public synchronized double getMaxElapsedMillis(){
+        return maxElapsedNanos / 1000000.0;
+    }
+
+    @Override
+    public synchronized double getAverageDepth(){
+        if (moveCount == 0){
+            return 0;
+        }
+        return (double) totalDepth / moveCount;
+    }
+
+    @Override
+    public synchronized double getNodesPerSecond(){
+        if (totalElapsedNanos == 0){
+            return 0;
+        }
+        return totalNodes * 1000000000.0 / totalElapsedNanos;
+    }
+
+    @Override
+    public synchronized long getLastNodes(){
+        if (last == null){
+            return 0;
+        }
+        return last.returnNodes();
+    }
+
+    @Override
+    public synchronized int getLastDepth(){
+        if (last == null){
+            return 0;
+        }
+        return last.returnDepthReached();
+    }
+
+    @Override
+    public synchronized double getLastElapsedMillis(){
+        if (last == null){
+            return 0;
+        }
+        return last.returnElapsedMillis();
+    }
+
+    @Override
+    public synchronized String getLastPrincipalVariation(){
+        if (last == null){
+            return "";
+        }
+        return last.returnPrincipalVariationText();
+    }
+
+    @Override
+    public synchronized void reset(){
+        moveCount = 0;
+        totalNodes = 0;
+        totalLeafEvaluations = 0;
+        totalCutoffs = 0;
+        totalTableHits = 0;
+        totalDepth = 0;
+        totalElapsedNanos = 0;
+        maxElapsedNanos = 0;
+        last = null;
+    }
+}
@@ -0,0 +1,35 @@
+/* The management interface for SearchMetrics. JMX finds the attributes of a standard MBean from an interface with the same name as the class
+    followed by MBean, and treats each get method as a read-only attribute, so these methods are named getX rather than the returnX used in 
+    the rest of the program. */
+
+public interface SearchMetricsMBean {
+
+    long getMoveCount();
+
+    long getTotalNodes();
+
+    long getTotalLeafEvaluations();
+
+    long getTotalCutoffs();
+
+    long getTotalTableHits();
+
+    double getAverageElapsedMillis();
+
+    double getMaxElapsedMillis();
+
+    double getAverageDepth();
+
+    double getNodesPerSecond();
+
+    long getLastNodes();
+
+    int getLastDepth();
+
+    double getLastElapsedMillis();
+
+    String getLastPrincipalVariation();
+
+    // Sets every total back to zero.
+    void reset();
+}
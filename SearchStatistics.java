@@ -0,0 +1,119 @@
+/* SearchStatistics holds the numbers for a single move by a computer player: which engine found it, how much work the search did, how deep
+    it went and how long it took. ComputerPlayer creates one after every move and passes it to its listeners (see SearchListener). The values
+    are final as they describe a search that has already finished, so the same object can be handed to several listeners and threads. */
+
+public class SearchStatistics {
+
+//Fields
+    private final String engine;
+    private final char colour;
+    private final int moveNumber;
+    private final int move;
+    private final long nodes;
+    private final long leafEvaluations;
+    private final long cutoffs;
+    private final long tableHits;
+    private final int depthReached;
+    private final long elapsedNanos;
+    private final int[] principalVariation;
+
+//Constructor
+    /* moveNumber is the number of counters on the board before the move was played. The principal variation is copied so that it cannot be 
+        changed by whoever passed it in. */
+    public SearchStatistics(String engine, char colour, int moveNumber, int move, long nodes, long leafEvaluations, long cutoffs, 
+        long tableHits, int depthReached, long elapsedNanos, int[] principalVariation){
+        this.engine = engine;
+        this.colour = colour;
+        this.moveNumber = moveNumber;
+        this.move = move;
+        this.nodes = nodes;
+        this.leafEvaluations = leafEvaluations;
+        this.cutoffs = cutoffs;
+        this.tableHits = tableHits;
+        this.depthReached = depthReached;
+        this.elapsedNanos = elapsedNanos;
+        this.principalVariation = principalVariation.clone();
+    }
+
+    // Collects the statistics for the last search the engine carried out.
+    public static SearchStatistics fromEngine(SearchEngine engine, char colour, int moveNumber, int move, long elapsedNanos){
+        return new SearchStatistics(engine.getClass().getSimpleName(), colour, moveNumber, move, engine.returnNodeCount(), 
+            engine.returnLeafCount(), engine.returnCutoffCount(), engine.returnTableHits(), engine.returnDepthReached(), elapsedNanos, 
+            engine.returnPrincipalVariation());
+    }
+
+//Accessors
+    public String returnEngine(){
+        return engine;
+    }
+
+    public char returnColour(){
+        return colour;
+    }
+
+    public int returnMoveNumber(){
+        return moveNumber;
+    }
+
+    public int returnMove(){
+        return move;
+    }
+
+    public long returnNodes(){
+        return nodes;
+    }
+
+    public long returnLeafEvaluations(){
+        return leafEvaluations;
+    }
+
+    public long returnCutoffs(){
+        return cutoffs;
+    }
+
+    public long returnTableHits(){
+        return tableHits;
+    }
+
+    public int returnDepthReached(){
+        return depthReached;
+    }
+
+    public long returnElapsedNanos(){
+        return elapsedNanos;
+    }
+
+    public double returnElapsedMillis(){
+        return elapsedNanos / 1000000.0;
+    }
+
+    public double returnNodesPerSecond(){
+        if (elapsedNanos == 0){
+            return 0;
+        }
+        return nodes * 1000000000.0 / elapsedNanos;
+    }
+
+    public int[] returnPrincipalVariation(){
+        return principalVariation.clone();
+    }
+
+    // The principal variation as column numbers counted from 1, as they are shown on the board (see Display).
+    public String returnPrincipalVariationText(){
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < principalVariation.length; i++){
+            if (i > 0){
+                text.append(' ');
+            }
+            text.append(principalVariation[i] + 1);
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%s %c move %d: column %d, %d nodes, %d leaves, %d cutoffs, %d table hits, depth %d, %.1f ms, pv [%s]", 
+            engine, colour, moveNumber, move + 1, nodes, leafEvaluations, cutoffs, tableHits, depthReached, returnElapsedMillis(), 
+            returnPrincipalVariationText());
+    }
+}
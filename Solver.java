@@ -0,0 +1,427 @@
+/* The Solver works out the exact result of a position with perfect play from both sides, rather than estimating it with a depth-limited 
+    search. It searches all the way to the end of the game, so it only becomes practical with a number of techniques that make the search
+    very much smaller:
+
+    - The position is held as two bitboards: the counters of the player to move and a mask of all counters. Playing a move swaps the player
+      and adds the counter to the mask. Adding the two together along with the bottom row gives a unique key for the position (see key).
+    - The search is a negamax: the score of a position is always from the point of view of the player to move, and the score of a move is
+      minus the score of the position it leads to for the opponent.
+    - Moves that let the opponent win straight away are never searched, and if the opponent threatens to win the only move searched is the 
+      one that blocks it.
+    - Moves are tried in the order of how many new threats they create, and otherwise centre-first.
+    - Positions are stored in a transposition table (see TranspositionTable) along with whether the score is an upper or lower bound. A 
+      position and its mirror image have the same score, so both are stored under the smaller of their two keys (see canonicalKey), and 
+      when the position being solved is its own mirror image only the moves in the left half are tried at the top.
+    - Instead of searching with a wide window, the root is solved with a series of null-window searches, each of which only answers whether 
+      the score is above a guess. The guesses narrow down the range of possible scores until the exact score is known.
+    - An opening book (see OpeningBook) holds the scores of the positions in the first few moves, which are by far the slowest to solve.
+
+    A score of 0 is a draw. A positive score means the player to move can force a win, and is larger the sooner the win comes: it is the 
+    number of that player's counters left unplayed when they win, plus one. A negative score is the same for a loss. */
+
+public class Solver implements SearchEngine {
+
+//Fields
+    /* The solver only works on the standard board. Its bitboard tricks (see winningSquares) are written for four in a row, and the key of a 
+        position has to fit in 64 bits. */
+    public static final int WIDTH = BitBoard.STANDARDWIDTH;
+    public static final int HEIGHT = BitBoard.STANDARDHEIGHT;
+    private static final int COLUMNBITS = HEIGHT + 1;
+    private static final int SQUARES = WIDTH * HEIGHT;
+
+    // Masks with a bit set in the bottom square of every column, and in every square on the board.
+    private static final long BOTTOMMASK = bottomMask();
+    private static final long BOARDMASK = BOTTOMMASK * ((1L << HEIGHT) - 1);
+
+    private static final int[] CENTREORDER = AlphaBetaSearch.centreOrder(WIDTH);
+
+    /* A multiplier used to spread the position key over all 64 bits before it is used in the transposition table. Multiplying by an odd 
+        number cannot map two keys to the same number, so the table still checks for the exact position. */
+    private static final long KEYMIXER = 0x9E3779B97F4A7C15L;
+
+    private final TranspositionTable table;
+    private final OpeningBook book;
+    private long nodeCount;
+
+    /* Set by another thread to ask the search to stop (see stop). It is checked every few thousand positions, as in AlphaBetaSearch, and 
+        once it has been seen stopped is set and the search unwinds without storing anything more in the table. Only the request needs to be
+        volatile. */
+    private static final int STOPCHECKINTERVAL = 4096;
+    private volatile boolean stopRequested;
+    private boolean stopped;
+
+    // The move list and move scores for each ply, so that ordering moves allocates nothing during the search.
+    private final long[][] moveLists;
+    private final int[][] moveScores;
+
+//Constructor
+    /* The opening book can be null, in which case every position is solved by searching. The transposition table cannot, as without it the
+        solver would search the same positions over and over and never finish. */
+    public Solver(TranspositionTable table, OpeningBook book){
+        if (table == null){
+            throw new IllegalArgumentException("The solver needs a transposition table");
+        }
+        if (book != null && (book.returnWidth() != WIDTH || book.returnHeight() != HEIGHT)){
+            throw new IllegalArgumentException("The opening book is for a different size of board");
+        }
+        this.table = table;
+        this.book = book;
+        moveLists = new long[SQUARES + 1][WIDTH];
+        moveScores = new int[SQUARES + 1][WIDTH];
+    }
+
+//Accessors
+    @Override
+    public long returnNodeCount(){
+        return nodeCount;
+    }
+
+    public TranspositionTable returnTable(){
+        return table;
+    }
+
+    public OpeningBook returnBook(){
+        return book;
+    }
+
+//Methods
+    // Returns the best move for the given colour, which should be the colour to move on the board.
+    @Override
+    public int findMove(Board board, char colour){
+        return bestMove(board.returnBitBoard(), colour);
+    }
+
+    /* Returns the exact score of the position for the given colour, who must be the player to move (see above for what the score means). If
+        the solver is stopped part way through, the score returned is 0 and means nothing. */
+    public int solve(BitBoard board, char colour){
+        startSearch();
+        LongBitBoard bits = standardBoard(board);
+        return solve(bits.getDiscs(colour), bits.getMask(), board.getMoveCount());
+    }
+
+    /* Returns the best move for the given colour, who must be the player to move. Each move is solved exactly and the one with the highest 
+        score is returned, with ties going to the column nearest the centre. Solving the later moves is quick, as the transposition table 
+        already holds most of the positions from solving the earlier ones. If the solver is stopped before it has solved every move, -1 is 
+        returned, as a move that has only been partly solved could be a losing one. */
+    public int bestMove(BitBoard board, char colour){
+        startSearch();
+        LongBitBoard bits = standardBoard(board);
+        long current = bits.getDiscs(colour);
+        long mask = bits.getMask();
+        int moves = board.getMoveCount();
+
+        int bestMove = -1;
+        int bestScore = Integer.MIN_VALUE;
+        long key = key(current, mask);
+        boolean symmetric = key == mirrorKey(key);
+        for (int i = 0; i < WIDTH; i++){
+            int col = CENTREORDER[i];
+            if ((mask & topMask(col)) != 0){
+                continue;
+            }
+
+            // On a symmetric board a move on the right scores the same as its mirror on the left, which is tried first and wins ties.
+            if (symmetric && col > WIDTH - 1 - col){
+                continue;
+            }
+            int score;
+            if (isWinningMove(current, mask, col)){
+                score = (SQUARES + 1 - moves) / 2;
+            }
+            else{
+                long move = (mask + bottomMask(col)) & columnMask(col);
+                score = -solve(current ^ mask, mask | move, moves + 1);
+                if (stopped){
+                    return -1;
+                }
+            }
+            if (score > bestScore){
+                bestScore = score;
+                bestMove = col;
+            }
+        }
+        return bestMove;
+    }
+
+    /* Asks a search running on another thread to stop (see ComputerPlayer's pondering). The search finishes within a few thousand positions
+        and returns -1, and the table is left holding only scores that were fully worked out. */
+    @Override
+    public void stop(){
+        stopRequested = true;
+    }
+
+    private void startSearch(){
+        nodeCount = 0;
+        stopRequested = false;
+        stopped = false;
+    }
+
+    // Solves a position given as the counters of the player to move, the mask of all counters, and the number of counters.
+    int solve(long current, long mask, int moves){
+        if (canWinNext(current, mask)){
+            return (SQUARES + 1 - moves) / 2;
+        }
+        if (moves == SQUARES){
+            return 0;
+        }
+
+        /* The score is known to be between min and max. Each null-window search tests whether the score is above a guess, and moves min or 
+            max up to the guess. The guess is usually halfway between them, but is pulled towards 0 first, as most positions score close to 0
+            and tests near 0 are quicker. */
+        int min = -(SQUARES - moves) / 2;
+        int max = (SQUARES + 1 - moves) / 2;
+        while (min < max){
+            int guess = min + (max - min) / 2;
+            if (guess <= 0 && min / 2 < guess){
+                guess = min / 2;
+            }
+            else if (guess >= 0 && max / 2 > guess){
+                guess = max / 2;
+            }
+            int result = negamax(current, mask, moves, guess, guess + 1);
+            if (stopped){
+                return 0;
+            }
+            if (result <= guess){
+                max = result;
+            }
+            else{
+                min = result;
+            }
+        }
+        return min;
+    }
+
+    /* negamax returns the score of the position if it is between alpha and beta. If the true score is lower than alpha then a score at most
+        alpha is returned, and if it is higher than beta then a score at least beta is returned. The position must not have a winning move for 
+        the player to move, which the caller checks first. */
+    private int negamax(long current, long mask, int moves, int alpha, int beta){
+        nodeCount++;
+        if ((nodeCount % STOPCHECKINTERVAL) == 0 && stopRequested){
+            stopped = true;
+        }
+        if (stopped){
+            return 0;
+        }
+
+        // Moves that do not hand the opponent a win. If there are none, the opponent wins on their next move.
+        long possible = possibleNonLosingMoves(current, mask);
+        if (possible == 0){
+            return -(SQUARES - moves) / 2;
+        }
+
+        // If there are only two squares left and neither player can win immediately, the game is a draw.
+        if (moves >= SQUARES - 2){
+            return 0;
+        }
+
+        // The opponent cannot win on their next move, so the worst possible score is losing on the move after.
+        int min = -(SQUARES - 2 - moves) / 2;
+        if (alpha < min){
+            alpha = min;
+            if (alpha >= beta){
+                return alpha;
+            }
+        }
+
+        // The player cannot win on this move, so the best possible score is winning on the move after.
+        int max = (SQUARES - 1 - moves) / 2;
+
+        long key = canonicalKey(key(current, mask));
+        if (book != null && moves <= book.returnDepth()){
+            int score = book.lookup(key);
+            if (score != OpeningBook.NOTFOUND){
+                return score;
+            }
+        }
+
+        long hash = key * KEYMIXER;
+        long entry = table.probe(hash);
+        if (entry != 0){
+            int stored = TranspositionTable.scoreOf(entry);
+            if (TranspositionTable.boundOf(entry) == TranspositionTable.LOWER){
+                if (alpha < stored){
+                    alpha = stored;
+                    if (alpha >= beta){
+                        return alpha;
+                    }
+                }
+            }
+            else if (stored < max){
+                max = stored;
+            }
+        }
+
+        if (beta > max){
+            beta = max;
+            if (alpha >= beta){
+                return beta;
+            }
+        }
+
+        int moveCount = orderMoves(current, mask, possible, moves);
+        long[] moveList = moveLists[moves];
+        for (int i = 0; i < moveCount; i++){
+            long move = moveList[i];
+            int score = -negamax(current ^ mask, mask | move, moves + 1, -beta, -alpha);
+            if (stopped){
+                return 0;
+            }
+
+            // A score at or above beta is only a lower bound, as the other moves have not been searched.
+            if (score >= beta){
+                table.store(hash, 0, TranspositionTable.LOWER, score, -1);
+                return score;
+            }
+            if (score > alpha){
+                alpha = score;
+            }
+        }
+
+        // Every move has been searched and none scored above alpha, so alpha is an upper bound on the score.
+        table.store(hash, 0, TranspositionTable.UPPER, alpha, -1);
+        return alpha;
+    }
+
+    /* Fills the move list for the ply with the given moves (each as a single bit), ordered by the number of winning squares the player has
+        after playing them. Moves with equal scores stay in centre-first order. */
+    private int orderMoves(long current, long mask, long possible, int ply){
+        long[] moveList = moveLists[ply];
+        int[] scores = moveScores[ply];
+        int count = 0;
+        for (int i = 0; i < WIDTH; i++){
+            long move = possible & columnMask(CENTREORDER[i]);
+            if (move == 0){
+                continue;
+            }
+            int score = Long.bitCount(winningSquares(current | move, mask));
+            int j = count;
+            while (j > 0 && scores[j - 1] < score){
+                moveList[j] = moveList[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            moveList[j] = move;
+            scores[j] = score;
+            count++;
+        }
+        return count;
+    }
+
+    // Checks the board is one the solver can work on (see WIDTH and HEIGHT), which is always stored in a single 64 bit number.
+    private static LongBitBoard standardBoard(BitBoard board){
+        if (board.getWidth() != WIDTH || board.getBoardHeight() != HEIGHT || board.getConnect() != BitBoard.STANDARDCONNECT){
+            throw new IllegalArgumentException("The solver only works on the standard 7x6 board with four in a row");
+        }
+        return (LongBitBoard) board;
+    }
+
+    /* Returns the key for the position. In each column, adding the bottom square to the mask gives the square above the top counter, and 
+        adding the player's counters on top of that cannot carry past it. So the highest set bit in each column of the key marks the height 
+        of the column, and the bits below it are the player's counters, which means no two positions share a key. */
+    static long key(long current, long mask){
+        return current + mask + BOTTOMMASK;
+    }
+
+    /* Returns the key of the position mirrored left to right. Each column takes up the same number of bits in the key, so mirroring is just 
+        reversing the order of the columns, which is done by moving each column's bits to the other side. */
+    static long mirrorKey(long key){
+        long columnBits = (1L << COLUMNBITS) - 1;
+        long mirrored = 0;
+        for (int col = 0; col < WIDTH; col++){
+            mirrored |= ((key >>> (col * COLUMNBITS)) & columnBits) << ((WIDTH - 1 - col) * COLUMNBITS);
+        }
+        return mirrored;
+    }
+
+    // The smaller of the keys of the position and its mirror image, which is the same for both.
+    static long canonicalKey(long key){
+        return Math.min(key, mirrorKey(key));
+    }
+
+    // Works out the position's mask from its key. For each column the mask is every square below the highest set bit (see key).
+    static long maskFromKey(long key){
+        long mask = 0;
+        for (int col = 0; col < WIDTH; col++){
+            long column = key & (columnMask(col) | topMask(col) << 1);
+            mask |= Long.highestOneBit(column) - bottomMask(col);
+        }
+        return mask;
+    }
+
+    static long currentFromKey(long key){
+        return key - maskFromKey(key) - BOTTOMMASK;
+    }
+
+    // The squares each column's next counter would land in.
+    static long possibleMoves(long mask){
+        return (mask + BOTTOMMASK) & BOARDMASK;
+    }
+
+    static boolean canWinNext(long current, long mask){
+        return (winningSquares(current, mask) & possibleMoves(mask)) != 0;
+    }
+
+    private static boolean isWinningMove(long current, long mask, int col){
+        return (winningSquares(current, mask) & possibleMoves(mask) & columnMask(col)) != 0;
+    }
+
+    /* Returns the possible moves that do not let the opponent win on their next move. If the opponent could win in a square the player can 
+        play in, that is the only move worth trying, and if there are two such squares the player cannot stop both. Playing directly below a
+        square the opponent would win in lets them play there next, so those moves are left out too. */
+    private static long possibleNonLosingMoves(long current, long mask){
+        long possible = possibleMoves(mask);
+        long opponentWins = winningSquares(current ^ mask, mask);
+        long forced = possible & opponentWins;
+        if (forced != 0){
+            if ((forced & (forced - 1)) != 0){
+                return 0;
+            }
+            possible = forced;
+        }
+        return possible & ~(opponentWins >>> 1);
+    }
+
+    /* Returns the empty squares that would complete four in a row for the given counters, whether or not they can be played in yet. For each 
+        direction, a square wins if it has three counters in a row on one side, or two on one side and one on the other. */
+    static long winningSquares(long position, long mask){
+        // Vertically, the only way to win is with three counters directly below.
+        long result = (position << 1) & (position << 2) & (position << 3);
+
+        result |= winningSquaresInDirection(position, COLUMNBITS);
+        result |= winningSquaresInDirection(position, COLUMNBITS - 1);
+        result |= winningSquaresInDirection(position, COLUMNBITS + 1);
+
+        return result & (BOARDMASK ^ mask);
+    }
+
+    private static long winningSquaresInDirection(long position, int shift){
+        long pair = (position << shift) & (position << (2 * shift));
+        long result = pair & (position << (3 * shift));
+        result |= pair & (position >>> shift);
+        pair = (position >>> shift) & (position >>> (2 * shift));
+        result |= pair & (position << shift);
+        result |= pair & (position >>> (3 * shift));
+        return result;
+    }
+
+    private static long topMask(int col){
+        return 1L << (HEIGHT - 1 + col * COLUMNBITS);
+    }
+
+    private static long bottomMask(int col){
+        return 1L << (col * COLUMNBITS);
+    }
+
+    static long columnMask(int col){
+        return ((1L << HEIGHT) - 1) << (col * COLUMNBITS);
+    }
+
+    private static long bottomMask(){
+        long mask = 0;
+        for (int col = 0; col < WIDTH; col++){
+            mask |= bottomMask(col);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,494 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/* A Tablebase holds the exact result of every position near the end of a game: whether the player to move wins, draws or loses with perfect
+    play, and how many moves it takes. Near the end of the game there are few moves left, but a depth-limited search still only guesses at
+    the result of each one, so the search can be given a tablebase (see AlphaBetaSearch.setTablebase) to look the answers up instead.
+
+    There are far too many positions with a few empty squares to hold them all, so a tablebase is generated from a starting position: it
+    holds every position that can be reached from it that has at most maxEmpty empty squares. It is generated backwards from the end of the
+    game. First every position is found by playing out every line from the start. Then the positions are solved in order of how full the board
+    is, fullest first, so the positions after every move have always been solved by the time a position is reached, and its result is just
+    the best of theirs. A position and its mirror image have the same result, so only one of them is stored (as in the opening book).
+
+    The file starts with a 16 byte header:
+
+        bytes  0-3   the characters C4TB
+        byte   4     board width
+        byte   5     board height
+        byte   6     the number in a row needed to win
+        byte   7     format version (1)
+        byte   8     the most empty squares a position in the table has
+        byte   9     the number of slots as a power of two
+        bytes 10-11  unused
+        bytes 12-15  the number of positions
+
+    followed by the slots, each of which is an 8 byte position key (see key) and a 1 byte result, with a key of 0 for an empty slot. The slot
+    for a position is worked out from its key, and if that slot holds another position the following slots are tried in turn. There are at
+    least twice as many slots as positions, so a position is found in a slot or two, with no searching through the file. The file is
+    memory-mapped, so probing it costs no more than reading a few bytes of memory once the pages have been read in.
+
+    The key works in the same way as the Solver's (see Solver.key), but for any board that fits in a LongBitBoard. Results are stored as a
+    byte: the result (WIN, DRAW or LOSS) in the top two bits and the number of moves until the end of the game in the lower six, counting the
+    move that ends it. */
+
+public class Tablebase {
+
+//Fields
+    // Returned by probe when the position is not in the table. This can never be a real result.
+    public static final int NOTFOUND = 0;
+
+    // The result for the player to move, as stored in the top two bits of the result byte.
+    public static final int WIN = 1;
+    public static final int DRAW = 2;
+    public static final int LOSS = 3;
+
+    // Distances are stored in six bits, so a table cannot hold positions with more empty squares than this.
+    public static final int MAXEMPTY = 63;
+
+    private static final int MAGIC = 0x43345442;
+    private static final int VERSION = 1;
+    private static final int HEADERSIZE = 16;
+    private static final int ENTRYSIZE = 9;
+
+    /* The file is mapped as a single buffer, which cannot be more than 2 GB, so a table has at most 2^27 slots (about 1.2 GB) and so at most 
+        2^26 positions. This also keeps the offset of every slot within an int. */
+    private static final int MAXSLOTBITS = 27;
+    private static final long KEYMIXER = 0x9E3779B97F4A7C15L;
+
+    private final ByteBuffer buffer;
+    private final int width;
+    private final int height;
+    private final int connect;
+    private final int maxEmpty;
+    private final int slotBits;
+    private final int slotMask;
+    private final int entryCount;
+    private final long bottomMask;
+
+//Constructor
+    private Tablebase(ByteBuffer buffer) throws IOException{
+        if (buffer.capacity() < HEADERSIZE || buffer.getInt(0) != MAGIC){
+            throw new IOException("Not a tablebase file");
+        }
+        if (buffer.get(7) != VERSION){
+            throw new IOException("Unsupported tablebase version " + buffer.get(7));
+        }
+        this.buffer = buffer;
+        this.width = buffer.get(4);
+        this.height = buffer.get(5);
+        this.connect = buffer.get(6);
+        this.maxEmpty = buffer.get(8);
+        this.slotBits = buffer.get(9);
+        if (slotBits < 1 || slotBits > MAXSLOTBITS){
+            throw new IOException("The tablebase has 2^" + slotBits + " slots, but can have at most 2^" + MAXSLOTBITS);
+        }
+        this.slotMask = (1 << slotBits) - 1;
+        this.entryCount = buffer.getInt(12);
+        if ((long) HEADERSIZE + ((long) slotMask + 1) * ENTRYSIZE > buffer.capacity()){
+            throw new IOException("The tablebase file is truncated");
+        }
+        this.bottomMask = bottomMask(width, height + 1);
+    }
+
+    // Maps the table file into memory. The mapping stays valid after the file channel is closed.
+    public static Tablebase load(Path file) throws IOException{
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            if (channel.size() > Integer.MAX_VALUE){
+                throw new IOException("The tablebase file is too large to map");
+            }
+            return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+//Accessors
+    public int returnWidth(){
+        return width;
+    }
+
+    public int returnHeight(){
+        return height;
+    }
+
+    public int returnConnect(){
+        return connect;
+    }
+
+    // Every position in the table has at most this many empty squares.
+    public int returnMaxEmpty(){
+        return maxEmpty;
+    }
+
+    public int returnEntryCount(){
+        return entryCount;
+    }
+
+    // Returns true if the table is for boards of the same size as the given one.
+    public boolean fits(BitBoard board){
+        return board.getWidth() == width && board.getBoardHeight() == height && board.getConnect() == connect;
+    }
+
+    // The parts of a stored result (see probe).
+    public static int resultOf(int entry){
+        return entry >> 6;
+    }
+
+    public static int distanceOf(int entry){
+        return entry & 0x3F;
+    }
+
+//Methods
+    /* Returns the stored result for the position on the board with the given colour to move, or NOTFOUND if it is not in the table. The
+        board must be one the table fits. */
+    public int probe(LongBitBoard board, char colour){
+        if (width * height - board.getMoveCount() > maxEmpty){
+            return NOTFOUND;
+        }
+        return probe(board.getDiscs(colour), board.getMask());
+    }
+
+    // The same as above, for a position given as the counters of the player to move and the mask of all counters.
+    public int probe(long current, long mask){
+        long key = canonicalKey(current + mask + bottomMask, width, height + 1);
+        int slot = slotFor(key, slotBits);
+        while (true){
+            int offset = HEADERSIZE + slot * ENTRYSIZE;
+            long stored = buffer.getLong(offset);
+            if (stored == key){
+                return buffer.get(offset + 8) & 0xFF;
+            }
+            if (stored == 0){
+                return NOTFOUND;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    /* Generates a table of every position with at most maxEmpty empty squares that can be reached from the given position, and writes it to
+        the file. The number of positions grows very quickly with maxEmpty, and every position reachable from the start is visited on the way,
+        so the start should be no more than a few moves before the positions wanted. Returns the number of positions in the table. */
+    public static int generate(BitBoard start, int maxEmpty, Path file) throws IOException{
+        if (!(start instanceof LongBitBoard)){
+            throw new IllegalArgumentException("Tablebases only work on boards that fit in 64 bits");
+        }
+        if (maxEmpty < 1 || maxEmpty > MAXEMPTY){
+            throw new IllegalArgumentException("A tablebase can hold positions with between 1 and " + MAXEMPTY + " empty squares");
+        }
+        LongBitBoard board = (LongBitBoard) start;
+        if (board.hasWon('r') || board.hasWon('y') || board.isFull()){
+            throw new IllegalArgumentException("The game is already over in the starting position");
+        }
+
+        Generator generator = new Generator(board, maxEmpty);
+        generator.collect(board.getDiscs(generator.colourToMove(board.getMoveCount())), board.getMask(), board.getMoveCount());
+        generator.solve();
+        generator.write(file);
+        return generator.positions.size;
+    }
+
+    /* Returns the key for a position (see Solver.key) on a board with the given width and bits per column. Adding the bottom square of each
+        column to the mask gives the square above the top counter, which marks the height of the column. */
+    static long bottomMask(int width, int columnBits){
+        long mask = 0;
+        for (int col = 0; col < width; col++){
+            mask |= 1L << (col * columnBits);
+        }
+        return mask;
+    }
+
+    /* The smaller of the key and the key of the position mirrored left to right, which is found by reversing the order of the columns (see
+        Solver.mirrorKey). */
+    static long canonicalKey(long key, int width, int columnBits){
+        long column = (1L << columnBits) - 1;
+        long mirrored = 0;
+        for (int col = 0; col < width; col++){
+            mirrored |= ((key >>> (col * columnBits)) & column) << ((width - 1 - col) * columnBits);
+        }
+        return Math.min(key, mirrored);
+    }
+
+    private static int slotFor(long key, int slotBits){
+        return (int) ((key * KEYMIXER) >>> (Long.SIZE - slotBits));
+    }
+
+    // Orders results from best to worst for the player to move: the quickest win, then a draw, then the slowest loss.
+    private static int rank(int entry){
+        int distance = distanceOf(entry);
+        if (resultOf(entry) == WIN){
+            return 1000 - distance;
+        }
+        if (resultOf(entry) == DRAW){
+            return -distance;
+        }
+        return -1000 + distance;
+    }
+
+    /* Generates a table: collect finds every position, solve works out each one's result, and write saves them. The keys are held in a
+        primitive hash set rather than a map, as a table can hold many millions of positions, and the keys for each number of counters are
+        also kept in a list so that they can be solved in order. */
+    private static class Generator {
+        private final LongBitBoard layout;
+        private final int width;
+        private final int columnBits;
+        private final int squares;
+        private final int maxEmpty;
+        private final long bottomMask;
+        private final long[] columnMasks;
+        private final char firstColour;
+
+        // Every position visited, with the result of those stored in the table, and the keys with each number of counters.
+        private final PositionSet positions;
+        private final PositionSet visited;
+        private final LongList[] byMoves;
+
+        Generator(LongBitBoard start, int maxEmpty){
+            this.layout = (LongBitBoard) BitBoard.create(start.getWidth(), start.getBoardHeight(), start.getConnect());
+            this.width = start.getWidth();
+            this.columnBits = start.getBoardHeight() + 1;
+            this.squares = start.getWidth() * start.getBoardHeight();
+            this.maxEmpty = maxEmpty;
+            this.bottomMask = Tablebase.bottomMask(width, columnBits);
+            this.columnMasks = new long[width];
+            for (int col = 0; col < width; col++){
+                columnMasks[col] = ((1L << start.getBoardHeight()) - 1) << (col * columnBits);
+            }
+
+            // The colour that moved first, worked out from whose turn it is, so that colourToMove is right for every position.
+            char toMove = PositionKey.colourToMove(start);
+            if (start.getMoveCount() % 2 == 0){
+                firstColour = toMove;
+            }
+            else{
+                firstColour = DepthFirstSearch.opponentOf(toMove);
+            }
+
+            positions = new PositionSet();
+            visited = new PositionSet();
+            byMoves = new LongList[squares + 1];
+            for (int i = 0; i <= squares; i++){
+                byMoves[i] = new LongList();
+            }
+        }
+
+        char colourToMove(int moves){
+            if (moves % 2 == 0){
+                return firstColour;
+            }
+            return DepthFirstSearch.opponentOf(firstColour);
+        }
+
+        /* Visits every position reachable from the given one where the game is not over, and adds those with few enough empty squares to
+            the table. A position reached again by another order of moves is not visited again. */
+        void collect(long current, long mask, int moves){
+            long key = canonicalKey(current + mask + bottomMask, width, columnBits);
+            if (squares - moves <= maxEmpty){
+                if (!positions.add(key)){
+                    return;
+                }
+                byMoves[moves].add(key);
+            }
+            else if (!visited.add(key)){
+                return;
+            }
+
+            for (int col = 0; col < width; col++){
+                long move = ((mask & columnMasks[col]) + (1L << (col * columnBits))) & columnMasks[col];
+                if (move == 0){
+                    continue;
+                }
+                long after = mask | move;
+                if (layout.isWin(current | move) || moves + 1 == squares){
+                    continue;
+                }
+                collect(current ^ mask, after, moves + 1);
+            }
+        }
+
+        /* Solves the positions from the fullest board back. Each move is worth a win straight away if it completes a line, a draw if it fills
+            the board, and otherwise the opposite of the result of the position it leads to, one move further away. */
+        void solve(){
+            for (int moves = squares - 1; moves >= 0; moves--){
+                LongList keys = byMoves[moves];
+                for (int i = 0; i < keys.size; i++){
+                    long key = keys.values[i];
+                    long mask = maskFromKey(key);
+                    long current = key - mask - bottomMask;
+                    int best = 0;
+                    for (int col = 0; col < width; col++){
+                        long move = ((mask & columnMasks[col]) + (1L << (col * columnBits))) & columnMasks[col];
+                        if (move == 0){
+                            continue;
+                        }
+                        int entry;
+                        if (layout.isWin(current | move)){
+                            entry = WIN << 6 | 1;
+                        }
+                        else if (moves + 1 == squares){
+                            entry = DRAW << 6 | 1;
+                        }
+                        else{
+                            long after = mask | move;
+                            int reply = positions.get(canonicalKey((current ^ mask) + after + bottomMask, width, columnBits));
+                            int result = DRAW;
+                            if (resultOf(reply) == WIN){
+                                result = LOSS;
+                            }
+                            else if (resultOf(reply) == LOSS){
+                                result = WIN;
+                            }
+                            entry = result << 6 | (distanceOf(reply) + 1);
+                        }
+                        if (best == 0 || rank(entry) > rank(best)){
+                            best = entry;
+                        }
+                    }
+                    positions.put(key, best);
+                }
+            }
+        }
+
+        long maskFromKey(long key){
+            long mask = 0;
+            for (int col = 0; col < width; col++){
+                long column = key & (columnMasks[col] | (1L << (col * columnBits + columnBits - 1)));
+                mask |= Long.highestOneBit(column) - (1L << (col * columnBits));
+            }
+            return mask;
+        }
+
+        void write(Path file) throws IOException{
+            int slotBits = 1;
+            while ((1L << slotBits) < 2L * positions.size){
+                slotBits++;
+            }
+            if (slotBits > MAXSLOTBITS){
+                throw new IllegalArgumentException("The tablebase has " + positions.size + " positions, but can hold at most " 
+                    + (1 << (MAXSLOTBITS - 1)));
+            }
+            int slotCount = 1 << slotBits;
+            long[] slotKeys = new long[slotCount];
+            byte[] slotResults = new byte[slotCount];
+            for (int i = 0; i < positions.keys.length; i++){
+                long key = positions.keys[i];
+                if (key == 0){
+                    continue;
+                }
+                int slot = slotFor(key, slotBits);
+                while (slotKeys[slot] != 0){
+                    slot = (slot + 1) & (slotCount - 1);
+                }
+                slotKeys[slot] = key;
+                slotResults[slot] = (byte) positions.results[i];
+            }
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))){
+                output.writeInt(MAGIC);
+                output.writeByte(layout.getWidth());
+                output.writeByte(layout.getBoardHeight());
+                output.writeByte(layout.getConnect());
+                output.writeByte(VERSION);
+                output.writeByte(maxEmpty);
+                output.writeByte(slotBits);
+                output.writeShort(0);
+                output.writeInt(positions.size);
+                for (int slot = 0; slot < slotCount; slot++){
+                    output.writeLong(slotKeys[slot]);
+                    output.writeByte(slotResults[slot]);
+                }
+            }
+        }
+    }
+
+    /* A growable hash set of position keys with a result for each, using open addressing in primitive arrays. Keys are never 0, so 0 marks
+        an empty slot. */
+    private static class PositionSet {
+        private long[] keys = new long[1 << 16];
+        private int[] results = new int[1 << 16];
+        private int size = 0;
+
+        // Returns false if the key was already in the set.
+        boolean add(long key){
+            if (size * 2 >= keys.length){
+                grow();
+            }
+            int index = indexOf(key);
+            if (keys[index] == key){
+                return false;
+            }
+            keys[index] = key;
+            size++;
+            return true;
+        }
+
+        void put(long key, int result){
+            results[indexOf(key)] = result;
+        }
+
+        int get(long key){
+            int index = indexOf(key);
+            if (keys[index] != key){
+                throw new IllegalStateException("Position " + Long.toHexString(key) + " was not collected");
+            }
+            return results[index];
+        }
+
+        // The slot holding the key, or the empty slot it would go in.
+        private int indexOf(long key){
+            int index = (int) ((key * KEYMIXER) >>> 40) & (keys.length - 1);
+            while (keys[index] != 0 && keys[index] != key){
+                index = (index + 1) & (keys.length - 1);
+            }
+            return index;
+        }
+
+        private void grow(){
+            long[] oldKeys = keys;
+            int[] oldResults = results;
+            keys = new long[oldKeys.length * 2];
+            results = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++){
+                if (oldKeys[i] != 0){
+                    int index = indexOf(oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    results[index] = oldResults[i];
+                }
+            }
+        }
+    }
+
+    // A growable list of keys.
+    private static class LongList {
+        private long[] values = new long[16];
+        private int size = 0;
+
+        void add(long value){
+            if (size == values.length){
+                long[] old = values;
+                values = new long[old.length * 2];
+                System.arraycopy(old, 0, values, 0, size);
+            }
+            values[size] = value;
+            size++;
+        }
+    }
+
+    /* Generates a table from the command line: java Tablebase <moves> <most empty squares> <file>. The starting position is given as a move
+        string on the standard board (see PositionAnalyser), with red moving first. */
+    public static void main(String[] args) throws IOException{
+        if (args.length < 3){
+            System.err.println("Usage: java Tablebase <moves> <most empty squares> <file>");
+            System.exit(1);
+        }
+        BitBoard start = BitBoard.create();
+        PositionAnalyser.setUpPosition(start, args[0]);
+        int count = generate(start, Integer.parseInt(args[1]), Paths.get(args[2]));
+        System.out.println(count + " positions written to " + args[2]);
+    }
+}
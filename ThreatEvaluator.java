@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/* ThreatEvaluator scores a board by looking at every set of four squares in a line (a window), of which there are 69 on the standard board.
+    On a board that needs a longer line to win, the windows are that long instead. A window that only holds one player's counters could still 
+    become a winning line for that player, and is worth more the more counters it holds: a window with all but one of its squares filled is a 
+    threat to win. A window holding counters of both colours can never be won, 
+    so it is worth nothing to either player. The score is the total for the player's windows minus the total for the opponent's, so every
+    open line and every threat on the board counts, for both sides.
+
+    Rather than looking at every window for each board, the number of counters of each colour in every window is kept up to date as moves are
+    played and undone, along with the total score. A counter is in at most 15 windows on the standard board, so playing or undoing a move only changes a few 
+    windows, and scoring a board is just returning the total. */
+
+public class ThreatEvaluator implements Evaluator {
+
+//Fields
+    /* The value of a window holding only one player's counters, indexed by the number of counters in it. Each counter is worth eight times 
+        the one before (up to a limit, so that long windows cannot overflow the total), and a full window is a win. On the standard board this 
+        is 0, 1, 8, 64, 10000. */
+    private static final int WINWEIGHT = 10000;
+    private int[] windowWeights;
+
+    /* windowSquares[w] holds the bitboard square index of each square in window w, and squareWindows[s] holds the windows that contain 
+        square s. Both depend only on the size of the board, so they are worked out when the evaluator is first reset, and again only if it
+        is reset with a board of a different size. board is a board of the size they were worked out for. */
+    private BitBoard board;
+    private int[][] windowSquares;
+    private int[][] squareWindows;
+
+    // counts[0][w] and counts[1][w] are the number of red and yellow counters in window w.
+    private int[][] counts;
+
+    // The total value of all windows for red. Yellow's score is the negative of this.
+    private int redScore;
+
+//Constructor
+    public ThreatEvaluator(){
+        setGeometry(BitBoard.create());
+    }
+
+//Accessors
+    // The number of windows on the board the evaluator was last reset with.
+    public int returnWindowCount(){
+        return windowSquares.length;
+    }
+
+//Methods
+    @Override
+    public void reset(BitBoard newBoard){
+        if (!board.sameGeometry(newBoard)){
+            setGeometry(newBoard);
+        }
+        Arrays.fill(counts[0], 0);
+        Arrays.fill(counts[1], 0);
+        redScore = 0;
+        for (int col = 0; col < newBoard.getWidth(); col++){
+            for (int row = 0; row < newBoard.getHeight(col); row++){
+                play(col, row, newBoard.getSquare(newBoard.getBoardHeight() - 1 - row, col));
+            }
+        }
+    }
+
+    // For each window containing the square, its old value is taken off the total, the count is changed, and its new value is added back.
+    @Override
+    public void play(int column, int row, char colour){
+        int[] colourCounts = counts[BitBoard.colourIndex(colour)];
+        int[] windows = squareWindows[board.squareIndex(column, row)];
+        for (int i = 0; i < windows.length; i++){
+            int window = windows[i];
+            redScore -= windowValue(window);
+            colourCounts[window]++;
+            redScore += windowValue(window);
+        }
+    }
+
+    @Override
+    public void undo(int column, int row, char colour){
+        int[] colourCounts = counts[BitBoard.colourIndex(colour)];
+        int[] windows = squareWindows[board.squareIndex(column, row)];
+        for (int i = 0; i < windows.length; i++){
+            int window = windows[i];
+            redScore -= windowValue(window);
+            colourCounts[window]--;
+            redScore += windowValue(window);
+        }
+    }
+
+    @Override
+    public int evaluate(BitBoard board, char colour){
+        if (colour == 'r'){
+            return redScore;
+        }
+        return -redScore;
+    }
+
+    // The value of a single window for red, which is 0 if the window is empty or holds counters of both colours.
+    private int windowValue(int window){
+        int red = counts[0][window];
+        int yellow = counts[1][window];
+        if (yellow == 0){
+            return windowWeights[red];
+        }
+        if (red == 0){
+            return -windowWeights[yellow];
+        }
+        return 0;
+    }
+
+    // Works out the windows and weights for a board of the given size.
+    private void setGeometry(BitBoard newBoard){
+        board = BitBoard.create(newBoard.getWidth(), newBoard.getBoardHeight(), newBoard.getConnect());
+        int length = board.getConnect();
+        windowWeights = new int[length + 1];
+        for (int i = 1; i < length; i++){
+            windowWeights[i] = 1 << Math.min(3 * (i - 1), 12);
+        }
+        windowWeights[length] = WINWEIGHT;
+        windowSquares = buildWindows(board);
+        squareWindows = buildSquareWindows(board, windowSquares);
+        counts = new int[2][windowSquares.length];
+    }
+
+    // Lists every window on the board: along the rows, up the columns, and along both diagonals.
+    private static int[][] buildWindows(BitBoard board){
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int length = board.getConnect();
+        List<int[]> windows = new ArrayList<int[]>();
+        for (int[] direction : directions){
+            for (int col = 0; col < board.getWidth(); col++){
+                for (int row = 0; row < board.getBoardHeight(); row++){
+                    int endCol = col + direction[0] * (length - 1);
+                    int endRow = row + direction[1] * (length - 1);
+                    if (endCol < 0 || endCol >= board.getWidth() || endRow < 0 || endRow >= board.getBoardHeight()){
+                        continue;
+                    }
+                    int[] squares = new int[length];
+                    for (int k = 0; k < length; k++){
+                        squares[k] = board.squareIndex(col + direction[0] * k, row + direction[1] * k);
+                    }
+                    windows.add(squares);
+                }
+            }
+        }
+        return windows.toArray(new int[0][]);
+    }
+
+    private static int[][] buildSquareWindows(BitBoard board, int[][] windows){
+        int squares = board.getSquareCount();
+        int[] sizes = new int[squares];
+        for (int[] window : windows){
+            for (int square : window){
+                sizes[square]++;
+            }
+        }
+        int[][] squareWindows = new int[squares][];
+        for (int square = 0; square < squares; square++){
+            squareWindows[square] = new int[sizes[square]];
+            sizes[square] = 0;
+        }
+        for (int w = 0; w < windows.length; w++){
+            for (int square : windows[w]){
+                squareWindows[square][sizes[square]++] = w;
+            }
+        }
+        return squareWindows;
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.Arrays;
+
+/* The TranspositionTable stores the results of positions that have already been searched, so that a position reached again by a different 
+    order of moves (a transposition) does not have to be searched again. Positions are found by their Zobrist hash (see BitBoard).
+
+    The table is a fixed size and is made up of a single array of longs, with two longs per slot: the first holds the hash of the position and 
+    the second holds the entry, packed as follows:
+
+        bits  0-31  score
+        bits 32-39  depth the position was searched to
+        bits 40-41  bound type (EXACT, LOWER or UPPER)
+        bits 42-49  best move plus one (0 if there is no best move)
+        bits 50-57  the search the entry was stored in (see newSearch)
+
+    Keeping everything in one primitive array means no objects are created when entries are stored, and the layout could be moved into a direct
+    buffer outside the heap unchanged. The hash is stored XORed with the entry, so if the two longs are ever read while half written the hash 
+    will not match and the entry is treated as missing rather than being read wrongly. */
+
+public class TranspositionTable {
+
+//Fields
+    // The bound type says how the stored score relates to the true score. An empty slot has a bound of 0, so a stored entry is never 0.
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    // The deepest search an entry can record, as the depth is stored in eight bits.
+    public static final int MAXDEPTH = 255;
+
+    private static final int BYTESPERENTRY = 16;
+
+    /* The most slots a table can have. Each slot takes two longs of the array, and an array cannot hold more than about 2^31 longs, so this
+        keeps the array well inside that. MAXBYTEBUDGET is the size of a table with this many slots (8 GB); a bigger budget gets no more. */
+    public static final long MAXENTRIES = 1L << 29;
+    public static final long MAXBYTEBUDGET = MAXENTRIES * BYTESPERENTRY;
+
+    private final long[] slots;
+    private final int indexMask;
+    private final ReplacementPolicy policy;
+    private int generation;
+
+    // Counters for how the table is being used, which help to choose the size of the table.
+    private long probes;
+    private long hits;
+    private long stores;
+    private long overwrites;
+    private long rejections;
+
+//Constructor
+    /* The number of slots is the largest power of two that fits in the byte budget, so the slot for a hash can be found with a mask rather 
+        than a division. */
+    public TranspositionTable(long byteBudget, ReplacementPolicy policy){
+        if (byteBudget < BYTESPERENTRY){
+            throw new IllegalArgumentException("The byte budget must allow for at least one entry");
+        }
+        long entries = Long.highestOneBit(Math.min(byteBudget / BYTESPERENTRY, MAXENTRIES));
+        this.slots = new long[(int) (entries * 2)];
+        this.indexMask = (int) entries - 1;
+        this.policy = policy;
+        this.generation = 0;
+    }
+
+//Accessors
+    public int returnCapacity(){
+        return indexMask + 1;
+    }
+
+    public long returnByteSize(){
+        return (long) returnCapacity() * BYTESPERENTRY;
+    }
+
+    public ReplacementPolicy returnPolicy(){
+        return policy;
+    }
+
+    public long returnProbes(){
+        return probes;
+    }
+
+    public long returnHits(){
+        return hits;
+    }
+
+    public long returnStores(){
+        return stores;
+    }
+
+    // The number of stores that replaced an entry for a different position.
+    public long returnOverwrites(){
+        return overwrites;
+    }
+
+    // The number of stores that were dropped because the policy kept the entry already in the slot.
+    public long returnRejections(){
+        return rejections;
+    }
+
+    public double returnHitRate(){
+        if (probes == 0){
+            return 0;
+        }
+        return (double) hits / probes;
+    }
+
+//Methods
+    /* Returns the packed entry for the position with the given hash, or 0 if the position is not in the table. The parts of the entry are read
+        with scoreOf, depthOf, boundOf and moveOf. */
+    public long probe(long hash){
+        probes++;
+        int slot = slotFor(hash);
+        long entry = slots[slot + 1];
+        if (entry != 0 && (slots[slot] ^ entry) == hash){
+            hits++;
+            return entry;
+        }
+        return 0;
+    }
+
+    // Stores the result of a search of the given position. The move is -1 if there is no best move, and the depth can be at most MAXDEPTH.
+    public void store(long hash, int depth, int bound, int score, int move){
+        if (depth < 0 || depth > MAXDEPTH){
+            throw new IllegalArgumentException("The depth must be between 0 and " + MAXDEPTH);
+        }
+        stores++;
+        int slot = slotFor(hash);
+        long oldEntry = slots[slot + 1];
+
+        if (oldEntry != 0 && (slots[slot] ^ oldEntry) != hash){
+            if (policy == ReplacementPolicy.DEPTH_PREFERRED && generationOf(oldEntry) == generation && depthOf(oldEntry) > depth){
+                rejections++;
+                return;
+            }
+            overwrites++;
+        }
+
+        long entry = (score & 0xFFFFFFFFL)
+            | ((long) depth << 32)
+            | ((long) bound << 40)
+            | ((long) (move + 1) << 42)
+            | ((long) generation << 50);
+        slots[slot] = hash ^ entry;
+        slots[slot + 1] = entry;
+    }
+
+    /* Marks the start of a new search. Entries from earlier searches are still found by probe, but the depth-preferred policy will let them be 
+        replaced by shallower entries from the new search, so the table does not fill up with old positions. */
+    public void newSearch(){
+        generation = (generation + 1) & 0xFF;
+    }
+
+    // Empties the table and resets the counters.
+    public void clear(){
+        Arrays.fill(slots, 0);
+        generation = 0;
+        resetStatistics();
+    }
+
+    public void resetStatistics(){
+        probes = 0;
+        hits = 0;
+        stores = 0;
+        overwrites = 0;
+        rejections = 0;
+    }
+
+    // The slot is picked using the upper half of the hash. Each slot takes up two places in the array.
+    private int slotFor(long hash){
+        return ((int) (hash >>> 32) & indexMask) * 2;
+    }
+
+    public static int scoreOf(long entry){
+        return (int) entry;
+    }
+
+    public static int depthOf(long entry){
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int boundOf(long entry){
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    public static int moveOf(long entry){
+        return ((int) (entry >>> 42) & 0xFF) - 1;
+    }
+
+    private static int generationOf(long entry){
+        return (int) (entry >>> 50) & 0xFF;
+    }
+}
@@ -0,0 +1,142 @@
+/* TreeSearch is the original search used by the computer player. It builds a decision tree of every possible move up to a fixed depth (see
+    DecisionTree), and then walks the tree with the minimax algorithm to find the route through the tree that results in the best outcome for 
+    the computer. The whole tree is held in memory, with a board for each node, so the size of the tree limits how deep it can search. */
+
+public class TreeSearch implements SearchEngine {
+
+    // The number of nodes of the tree visited by minimax while finding the last move, and how many of them were leaves.
+    private long nodeCount;
+    private long leafCount;
+
+    // The depth passed to the decision tree, which is 4 unless another is given.
+    private final int depth;
+
+    public TreeSearch(){
+        this(4);
+    }
+
+    public TreeSearch(int depth){
+        if (depth < 0){
+            throw new IllegalArgumentException("The tree depth cannot be negative");
+        }
+        this.depth = depth;
+    }
+
+    @Override
+    public long returnNodeCount(){
+        return nodeCount;
+    }
+
+    @Override
+    public long returnLeafCount(){
+        return leafCount;
+    }
+
+    /* The decision tree always builds the tree with the computer as yellow (see DecisionTree), so the colour passed in is not used by this
+        engine. */
+    @Override
+    public int findMove(Board originalBoard, char colour){
+        
+        // A root node is created for the decision tree. The node is defined in a seperate class.
+        Node root = new Node(0, 'r', originalBoard);
+        
+        /* Setting the nodeBoard to the originalBoard directly would not create a new object, but a pointer to the original object. Therefore
+            each value of the array in the original board is copied over to the new board array.*/
+        root.getNodeBoard().copyBoard(originalBoard);
+
+
+        DecisionTree tree = new DecisionTree(root, depth);
+        nodeCount = 0;
+        leafCount = 0;
+    
+
+        /* A move by the computer is generated by the use of the minimax algorithm. This has been abstracted to its own method. 
+        The algorithm returns the move the computer should make that will result in the best leaf node of the tree (note that the tree 
+        does not cover the entire game, but only up to the specified depth). The function returns a tuple with the column that the computer 
+        should place its counter in. The tuple is defined as a seperate class, and the move is retrieved by calling getMove(). The move is
+        then returned by the method. The principle source for the general idea of the miniMax algorithm was 
+        https://medium.com/analytics-vidhya/artificial-intelligence-at-play-connect-four-minimax-algorithm-explained-3b5fc32e4a4f, but all code is my own. */
+        return miniMax(tree.returnRoot(), true).getMove();
+        
+    }
+
+    /* miniMax implements the mini-max algorithm to get the best move. The method takes a node as input. If the node is
+        a terminal node, it simulates  
+        returns a Tuple of the value of the node and the move made. It takes in the node to be explored and a boolean saying whether the value should be 
+        maximised or minimised. */
+    private Tuple miniMax(Node node, boolean computer){
+        nodeCount++;
+        /* This is the base case of the method. If the end of the tree has been reached the computer evalutes the board stored by that node, setting the 
+            value of the node to be the score returned.*/
+        
+            if (node.isLeaf()){
+                leafCount++;
+                int value = evaluateBoard(node.getNodeBoard(), node.getPlayer());
+                node.setValue(value);
+                // A tuple containing the move of the node and the score of the board with that move is returned.
+                return new Tuple(node.getMove(), node.getValue());
+        }
+
+        /* If the node is not a leaf, then the score of the node is either the maximum or minimum of its childnodes (depending on whether the player is 
+            maximising or minimising). This is retreieved by calling the method recursively on each child node until the leaf nodes are reached. */
+        else {
+            
+            /* For the maximising player, the node score is highest score of the childnodes (where each childNode represents a valid move). */
+            if (computer){
+                /* The score is initially set at a value lower than any possible board score to ensure that at least one node will be higher. */ 
+                Tuple score = new Tuple(0, -100000);
+                
+                /* miniMax is called on each childnode. If the returned value is higher than the score value, then score is set to the value of the node. 
+                    This means that to set the value of a node the search process must first explore down to the bottom of the tree (depth-first) */
+                for (Node childNode : node.getChildren()){
+                    Tuple nodeScore = miniMax(childNode, !computer);
+                    if (nodeScore.getValue() > score.getValue()){
+                        score = nodeScore;
+                    }
+                }
+                return score;
+            }
+            
+            /* For the minimising player, the node score is lowest score of the childnodes (where each childnode represents a valid move). */
+            else{
+                Tuple score = new Tuple(0, 100000);
+                computer = !computer;
+                for (Node childNode : node.getChildren()){
+                    Tuple nodeScore = miniMax(childNode, computer);
+                    if (nodeScore.getValue() < score.getValue()){
+                        score = nodeScore;
+                    }
+                }
+                return score;
+            }
+        }
+    }
+
+    /* This method evaluates the board by looking at the maximum score for each player. 
+        The scoring of the board uses the same method that is used to check for a win, which has been abstracted into the board class. 
+        The weightings of the score are adjusted to reflect their proportional importance within the game, although the exact values are abitrary.*/ 
+    private int evaluateBoard(Board board, char player){
+
+        //getMaxScore returns the longest open sequence of characters. row.e. ryyy is a score of 3 for y, but ryyyr is closed so has a score of 1
+        return weightScore(board.getMaxScore(player), board.returnConnect());
+    }
+
+    /* The weightings depend on how far the sequence is from a winning line, so that they work for any length of line. With four in a row
+        these are 1, 3, 100 and 1000 for sequences of 1, 2, 3 and 4. This is shared with FlatTreeSearch so both trees score boards the same way.*/
+    static int weightScore(int score, int connect){
+        int weightedScore = 0;
+        if (score >= 1){
+            weightedScore = 1;
+        }
+        if (score >= 2 && score == connect - 2){
+            weightedScore = 3;
+        }
+        if (score == connect - 1){
+            weightedScore = 100;
+        }
+        if (score >= connect){
+            weightedScore = 1000;
+        }
+        return weightedScore;
+    }
+}
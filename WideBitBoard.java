@@ -0,0 +1,165 @@
+/* WideBitBoard is the version of BitBoard (see BitBoard for the layout) for boards with more than 64 bits, such as 9x7. The bits are laid out 
+    in exactly the same way, but spread over several 64 bit numbers (words): bit i of the board is bit i % 64 of word i / 64. 
+
+    The win check still works by shifting the board and ANDing it with itself, but a shift has to move bits from one word into the next, so 
+    each shift and AND is a short loop over the words. Two spare arrays are kept for the shifted copies, so the checks still create no objects. 
+    A board with this many bits is only used when it is needed, so the standard board never pays for the loops. */
+
+public final class WideBitBoard extends BitBoard {
+
+//Fields
+    // The number of 64 bit words needed for each player.
+    private final int words;
+
+    // discs[0] holds the red counters and discs[1] holds the yellow counters, each as an array of words.
+    private final long[][] discs;
+
+    // The shifts for each direction a line can run in: vertical, horizontal and the two diagonals (see hasLine).
+    private final int[] shifts;
+
+    // Working space for the win check, so that no arrays are created while searching.
+    private final long[] run;
+    private final long[] shifted;
+
+//Constructor
+    // Boards are created with BitBoard.create, which only uses this version when the board does not fit in 64 bits.
+    WideBitBoard(int width, int height, int connect){
+        super(width, height, connect);
+        words = (width * columnBits + Long.SIZE - 1) / Long.SIZE;
+        discs = new long[2][words];
+        shifts = new int[] {1, columnBits, columnBits - 1, columnBits + 1};
+        run = new long[words];
+        shifted = new long[words];
+    }
+
+//Accessors
+    public int returnWords(){
+        return words;
+    }
+
+//Methods
+    @Override
+    protected void setSquare(int colour, int square){
+        discs[colour][square >>> 6] |= 1L << (square & 63);
+    }
+
+    @Override
+    protected int clearSquare(int square){
+        int word = square >>> 6;
+        long bit = 1L << (square & 63);
+        int colour = 1;
+        if ((discs[0][word] & bit) != 0){
+            colour = 0;
+        }
+        discs[colour][word] &= ~bit;
+        return colour;
+    }
+
+    @Override
+    protected int colourAt(int square){
+        int word = square >>> 6;
+        long bit = 1L << (square & 63);
+        if ((discs[0][word] & bit) != 0){
+            return 0;
+        }
+        if ((discs[1][word] & bit) != 0){
+            return 1;
+        }
+        return -1;
+    }
+
+    @Override
+    protected void copyDiscs(BitBoard boardToCopy){
+        WideBitBoard other = (WideBitBoard) boardToCopy;
+        System.arraycopy(other.discs[0], 0, discs[0], 0, words);
+        System.arraycopy(other.discs[1], 0, discs[1], 0, words);
+    }
+
+    @Override
+    public boolean hasWon(char colour){
+        long[] board = discs[colourIndex(colour)];
+        for (int i = 0; i < shifts.length; i++){
+            if (hasLine(board, shifts[i])){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The same doubling as LongBitBoard's hasLine, with each shift and AND done a word at a time.
+    private boolean hasLine(long[] board, int shift){
+        System.arraycopy(board, 0, run, 0, words);
+        int length = 1;
+        while (2 * length < connect){
+            shiftRight(run, length * shift, shifted);
+            if (!and(run, shifted)){
+                return false;
+            }
+            length *= 2;
+        }
+        shiftRight(run, (connect - length) * shift, shifted);
+        return and(run, shifted);
+    }
+
+    @Override
+    public int longestRun(char colour){
+        long[] board = discs[colourIndex(colour)];
+        if (isEmpty(board)){
+            return 0;
+        }
+        int longest = 1;
+        for (int i = 0; i < shifts.length; i++){
+            System.arraycopy(board, 0, run, 0, words);
+            int length = 1;
+            while (length < connect){
+                shiftRight(board, length * shifts[i], shifted);
+                if (!and(run, shifted)){
+                    break;
+                }
+                length++;
+            }
+            if (length == connect){
+                return connect;
+            }
+            longest = Math.max(longest, length);
+        }
+        return longest;
+    }
+
+    /* Shifts the bits of source down by the given number of places into destination. Each word takes the top bits of the word it is shifted 
+        from, and the bottom bits of the word above that. */
+    private void shiftRight(long[] source, int places, long[] destination){
+        int wordShift = places >>> 6;
+        int bitShift = places & 63;
+        for (int i = 0; i < words; i++){
+            int from = i + wordShift;
+            long value = 0;
+            if (from < words){
+                value = source[from] >>> bitShift;
+                if (bitShift != 0 && from + 1 < words){
+                    value |= source[from + 1] << (Long.SIZE - bitShift);
+                }
+            }
+            destination[i] = value;
+        }
+    }
+
+    // ANDs other into board, and returns true if any bits are left.
+    private boolean and(long[] board, long[] other){
+        long any = 0;
+        for (int i = 0; i < words; i++){
+            board[i] &= other[i];
+            any |= board[i];
+        }
+        return any != 0;
+    }
+
+    private boolean isEmpty(long[] board){
+        for (int i = 0; i < words; i++){
+            if (board[i] != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+}
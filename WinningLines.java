@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* WinningLines holds every line on a board of a given size, worked out once so that the line checks in Board never have to find the edges
+    of the board while they are scanning it. A line is the list of squares from one edge of the board to the other in one of the four
+    directions: along a row, down a column, or down one of the two diagonals. Every line a player could win along is part of one of them, and
+    the longest run of counters on the board is the longest run along any of them.
+
+    Squares are numbered along the rows from the top left, as in Board, so square row * width + column holds the counter at that row and
+    column. For each direction the lines are kept in groups, so that the checks can look at one row or column at a time: a row or column is a
+    group of one line, and the diagonals are grouped by the row their top square is in. Down and to the right, the diagonals starting in the
+    top row (one for each column) make up the first group, and each row below adds the single diagonal starting at the left edge. Down and to
+    the left works the same way from the right edge. Each square also keeps the four lines through it and where it is along each, so a new
+    counter can be checked for a win without looking at the rest of the board.
+
+    The tables depend only on the size of the board and the length of line needed to win, so they are made the first time a board of that
+    size is created and shared by every board of the same size afterwards. Nothing in them changes once they are made, so they can be shared
+    between threads. */
+
+public final class WinningLines {
+
+//Fields
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+    public static final int DIAGONALRIGHT = 2;
+    public static final int DIAGONALLEFT = 3;
+
+    // The step in rows and columns from one square of a line to the next, for each direction.
+    private static final int[][] STEPS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private static final ConcurrentHashMap<Integer, WinningLines> TABLES = new ConcurrentHashMap<Integer, WinningLines>();
+
+    private final int width;
+    private final int height;
+    private final int connect;
+
+    /* lines[direction][l] holds the squares of line l in the direction, from the top (or the left, for rows). The lines in group g of the
+        direction are the ones from groupStarts[direction][g] up to, but not including, groupStarts[direction][g + 1]. */
+    private final int[][][] lines;
+    private final int[][] groupStarts;
+
+    // squareLines[s][direction] is the line in the direction through square s, and squarePositions[s][direction] is where s is along it.
+    private final int[][] squareLines;
+    private final int[][] squarePositions;
+
+//Constructor
+    private WinningLines(int width, int height, int connect){
+        this.width = width;
+        this.height = height;
+        this.connect = connect;
+        lines = new int[STEPS.length][][];
+        groupStarts = new int[STEPS.length][];
+        squareLines = new int[width * height][STEPS.length];
+        squarePositions = new int[width * height][STEPS.length];
+        for (int direction = 0; direction < STEPS.length; direction++){
+            buildLines(direction);
+        }
+    }
+
+    // Returns the lines for a board of the given size, making them if no board of that size has been created before.
+    public static WinningLines of(int width, int height, int connect){
+        if (width < 1 || height < 1 || width > 0xFF || height > 0xFF || connect < 1 || connect > 0xFF){
+            throw new IllegalArgumentException("No lines for a " + width + "x" + height + " board with " + connect + " in a row");
+        }
+        return TABLES.computeIfAbsent(width << 16 | height << 8 | connect, geometry -> new WinningLines(width, height, connect));
+    }
+
+//Accessors
+    public int returnWidth(){
+        return width;
+    }
+
+    public int returnHeight(){
+        return height;
+    }
+
+    public int returnConnect(){
+        return connect;
+    }
+
+    // The number of groups of lines in the direction: one for each row, or each column, or each row a diagonal can start in.
+    public int returnGroupCount(int direction){
+        return groupStarts[direction].length - 1;
+    }
+
+//Methods
+    /* Returns the longest run of the player's counters along any line on the board, where the board is given one square per counter,
+        numbered as above. A run of connect or more is a win, so the search stops as soon as it finds one and returns connect. */
+    public int longestRun(char[] squares, char player){
+        int longest = 0;
+        for (int direction = 0; direction < STEPS.length; direction++){
+            longest = Math.max(longestRun(squares, player, lines[direction], 0, lines[direction].length), longest);
+            if (longest >= connect){
+                return connect;
+            }
+        }
+        return longest;
+    }
+
+    // Returns the longest run along the lines of one group in the direction, stopping at connect in the same way.
+    public int longestRun(char[] squares, char player, int direction, int group){
+        return longestRun(squares, player, lines[direction], groupStarts[direction][group], groupStarts[direction][group + 1]);
+    }
+
+    /* Returns the longest run of the counter in the square that passes through the square, in any direction. The counters either side of
+        it along each line are counted until one is a different colour, and the line itself says where it ends, so there is nothing to check
+        against the edges of the board. */
+    public int runThrough(char[] squares, int square){
+        char player = squares[square];
+        int longest = 0;
+        for (int direction = 0; direction < STEPS.length; direction++){
+            int[] line = lines[direction][squareLines[square][direction]];
+            int position = squarePositions[square][direction];
+            int first = position;
+            while (first > 0 && squares[line[first - 1]] == player){
+                first--;
+            }
+            int last = position;
+            while (last < line.length - 1 && squares[line[last + 1]] == player){
+                last++;
+            }
+            longest = Math.max(last - first + 1, longest);
+        }
+        return longest;
+    }
+
+    private int longestRun(char[] squares, char player, int[][] group, int from, int to){
+        int longest = 0;
+        for (int l = from; l < to; l++){
+            int[] line = group[l];
+            // A line shorter than the longest run so far cannot hold a longer one.
+            if (line.length <= longest){
+                continue;
+            }
+            int count = 0;
+            for (int square : line){
+                if (squares[square] == player){
+                    count++;
+                    if (count > longest){
+                        longest = count;
+                        if (longest >= connect){
+                            return connect;
+                        }
+                    }
+                }
+                else{
+                    count = 0;
+                }
+            }
+        }
+        return longest;
+    }
+
+    /* Works out the lines in one direction, group by group. A line starts from every square that has no square before it in the direction
+        (one step back would be off the board) and carries on until the next step would be off the board. Going through the starting squares
+        a row at a time from the top, and along each row from the side the lines start from, puts them in the groups described above. */
+    private void buildLines(int direction){
+        int rowStep = STEPS[direction][0];
+        int columnStep = STEPS[direction][1];
+        List<int[]> found = new ArrayList<int[]>();
+        List<Integer> starts = new ArrayList<Integer>();
+        for (int row = 0; row < height; row++){
+            if (direction == VERTICAL && row > 0){
+                break;
+            }
+            if (direction != VERTICAL){
+                starts.add(found.size());
+            }
+            for (int i = 0; i < width; i++){
+                int column = i;
+                if (columnStep < 0){
+                    column = width - 1 - i;
+                }
+                if (direction == VERTICAL){
+                    starts.add(found.size());
+                }
+                if (onBoard(row - rowStep, column - columnStep)){
+                    continue;
+                }
+                int length = 1;
+                while (onBoard(row + length * rowStep, column + length * columnStep)){
+                    length++;
+                }
+                int[] line = new int[length];
+                for (int k = 0; k < length; k++){
+                    int square = (row + k * rowStep) * width + column + k * columnStep;
+                    line[k] = square;
+                    squareLines[square][direction] = found.size();
+                    squarePositions[square][direction] = k;
+                }
+                found.add(line);
+            }
+        }
+        starts.add(found.size());
+        lines[direction] = found.toArray(new int[0][]);
+        groupStarts[direction] = new int[starts.size()];
+        for (int g = 0; g < starts.size(); g++){
+            groupStarts[direction][g] = starts.get(g);
+        }
+    }
+
+    private boolean onBoard(int row, int column){
+        return row >= 0 && row < height && column >= 0 && column < width;
+    }
+}
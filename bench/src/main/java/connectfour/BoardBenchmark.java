@@ -0,0 +1,54 @@
+package connectfour;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* Benchmarks for the Board operations used on every node of the search: scoring the longest line, checking for a win, and copying a board. */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"opening", "midgame", "nearfull"})
+    public String position;
+
+    private Board board;
+    private Board copy;
+
+    @Setup
+    public void setUp(){
+        board = Positions.boardFor(position);
+        copy = new Board();
+    }
+
+    @Benchmark
+    public int getMaxScore(){
+        return board.getMaxScore('r');
+    }
+
+    @Benchmark
+    public boolean checkWin(){
+        return board.checkWin('y');
+    }
+
+    @Benchmark
+    public Board copyBoard(){
+        copy.copyBoard(board);
+        return copy;
+    }
+}
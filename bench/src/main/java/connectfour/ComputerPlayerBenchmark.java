@@ -0,0 +1,89 @@
+package connectfour;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* Benchmarks a full getMove with each of the search engines. Alongside moves per second, the positions each engine visits are reported 
+    through the nodes counter, which JMH turns into nodes per second. */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComputerPlayerBenchmark {
+
+    @Param({"opening", "midgame", "nearfull"})
+    public String position;
+
+    @Param({"tree", "flattree", "depthfirst", "alphabeta", "alphabeta-threat"})
+    public String engine;
+
+    // The counter is reset by JMH at the start of each iteration, and reported as a rate as it is counted per operation.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class NodeCounter {
+        public long nodes;
+    }
+
+    private Board board;
+    private SearchEngine searchEngine;
+    private TranspositionTable table;
+    private ComputerPlayer computer;
+
+    @Setup
+    public void setUp(){
+        board = Positions.boardFor(position);
+        switch (engine){
+            case "tree":
+                searchEngine = new TreeSearch();
+                break;
+            case "flattree":
+                searchEngine = new FlatTreeSearch();
+                break;
+            case "depthfirst":
+                searchEngine = new DepthFirstSearch(6);
+                break;
+            case "alphabeta":
+                table = new TranspositionTable(16 << 20, ReplacementPolicy.DEPTH_PREFERRED);
+                searchEngine = new AlphaBetaSearch(12, table);
+                break;
+            case "alphabeta-threat":
+                table = new TranspositionTable(16 << 20, ReplacementPolicy.DEPTH_PREFERRED);
+                searchEngine = new AlphaBetaSearch(12, table, 0, new ThreatEvaluator());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+        computer = new ComputerPlayer(searchEngine);
+    }
+
+    // The table is emptied before every move so that each move is searched from scratch rather than from the last move's entries.
+    @Setup(Level.Invocation)
+    public void clearTable(){
+        if (table != null){
+            table.clear();
+        }
+    }
+
+    @Benchmark
+    public int getMove(NodeCounter counter){
+        int move = computer.getMove(board);
+        counter.nodes += computer.returnNodeCount();
+        return move;
+    }
+}
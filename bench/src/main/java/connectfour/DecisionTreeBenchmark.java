@@ -0,0 +1,53 @@
+package connectfour;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* Benchmarks building the full decision tree for a position, which is the cost TreeSearch pays before minimax starts, alongside building the
+    same tree as a FlatDecisionTree. */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionTreeBenchmark {
+
+    @Param({"opening", "midgame", "nearfull"})
+    public String position;
+
+    private Board board;
+    private FlatDecisionTree flatTree;
+
+    @Setup
+    public void setUp(){
+        board = Positions.boardFor(position);
+        flatTree = new FlatDecisionTree();
+    }
+
+    @Benchmark
+    public Node generateTree(){
+        Node root = new Node(0, 'r', board);
+        root.getNodeBoard().copyBoard(board);
+        return new DecisionTree(root).returnRoot();
+    }
+
+    // The same depth of tree built into the arrays of a FlatDecisionTree, which are reused by every call.
+    @Benchmark
+    public int generateFlatTree(){
+        flatTree.build(board.returnBitBoard(), 4, 'y');
+        return flatTree.returnSize();
+    }
+}
@@ -0,0 +1,45 @@
+package connectfour;
+
+/* Positions holds the fixed set of positions the benchmarks are run on, so that results from different builds can be compared. Each position
+    is written as the columns played in order, counting from 1, with red moving first. None of the positions contain four in a row. */
+
+final class Positions {
+
+    static final String OPENING = "44";
+    static final String MIDGAME = "2673565465325537";
+    static final String NEARFULL = "57675473656751464523665133217711144233";
+
+    private Positions(){
+    }
+
+    // Returns the moves for the position with the given name, as used in the benchmarks' position parameter.
+    static String movesFor(String name){
+        switch (name){
+            case "opening":
+                return OPENING;
+            case "midgame":
+                return MIDGAME;
+            case "nearfull":
+                return NEARFULL;
+            default:
+                throw new IllegalArgumentException("Unknown position: " + name);
+        }
+    }
+
+    // Plays the moves on a new board, alternating between red and yellow.
+    static Board boardFor(String name){
+        Board board = new Board();
+        String moves = movesFor(name);
+        char player = 'r';
+        for (int i = 0; i < moves.length(); i++){
+            board.makeMove(moves.charAt(i) - '1', player);
+            if (player == 'r'){
+                player = 'y';
+            }
+            else{
+                player = 'r';
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/* Checks the win and longest line checks of both kinds of bitboard, including lines that would only appear if the bits of one column ran
+    on into the next, and that playing and undoing moves leaves the board and its hashes as they were. */
+
+class BitBoardTest {
+
+    // Plays the columns in turn, red first, and returns the board.
+    static BitBoard play(BitBoard board, int... columns){
+        char colour = 'r';
+        for (int column : columns){
+            board.play(column, colour);
+            colour = DepthFirstSearch.opponentOf(colour);
+        }
+        return board;
+    }
+
+    @Test
+    void findsWinsInEveryDirection(){
+        for (BitBoard empty : new BitBoard[] {BitBoard.create(), BitBoard.create(15, 15, 4)}){
+            // Along the bottom row.
+            BitBoard horizontal = play(empty.copy(), 0, 0, 1, 1, 2, 2, 3);
+            assertTrue(horizontal.hasWon('r'));
+            assertFalse(horizontal.hasWon('y'));
+
+            // Up a column.
+            BitBoard vertical = play(empty.copy(), 2, 3, 2, 3, 2, 3, 2);
+            assertTrue(vertical.hasWon('r'));
+
+            // Up and to the right from the bottom left.
+            BitBoard rising = play(empty.copy(), 0, 1, 1, 2, 2, 3, 2, 3, 3, 5, 3);
+            assertTrue(rising.hasWon('r'));
+
+            // Up and to the left from column 3.
+            BitBoard falling = play(empty.copy(), 3, 2, 2, 1, 1, 0, 1, 0, 0, 5, 0);
+            assertTrue(falling.hasWon('r'));
+        }
+    }
+
+    @Test
+    void doesNotJoinLinesAcrossColumns(){
+        // Red has the top three squares of column 0 and the bottom square of column 1, which come one after the other in the bits.
+        BitBoard board = BitBoard.create();
+        for (char colour : new char[] {'y', 'y', 'y', 'r', 'r', 'r'}){
+            board.play(0, colour);
+        }
+        board.play(1, 'r');
+        assertEquals('r', board.getSquare(0, 0));
+        assertEquals('r', board.getSquare(5, 1));
+        assertFalse(board.hasWon('r'));
+        assertEquals(3, board.longestRun('r'));
+    }
+
+    @Test
+    void longestRunIsCappedAtConnect(){
+        BitBoard board = BitBoard.create(9, 7, 5);
+        assertEquals(0, board.longestRun('r'));
+        play(board, 0, 0, 1, 1, 2, 2);
+        assertEquals(3, board.longestRun('r'));
+        assertEquals(3, board.longestRun('y'));
+        play(board, 3, 8, 4);
+        assertTrue(board.hasWon('r'));
+        assertEquals(5, board.longestRun('r'));
+    }
+
+    @Test
+    void undoRestoresThePosition(){
+        Random random = new Random(7);
+        for (BitBoard board : new BitBoard[] {BitBoard.create(), BitBoard.create(9, 7, 5), BitBoard.create(15, 15, 4)}){
+            long emptyHash = board.getHash();
+            char colour = 'r';
+            int played = 0;
+            while (!board.isFull() && played < 30){
+                int column = random.nextInt(board.getWidth());
+                if (!board.canPlay(column)){
+                    continue;
+                }
+                long hash = board.getHash();
+                int height = board.getHeight(column);
+                board.play(column, colour);
+                board.undo();
+                assertEquals(hash, board.getHash());
+                assertEquals(height, board.getHeight(column));
+                board.play(column, colour);
+                colour = DepthFirstSearch.opponentOf(colour);
+                played++;
+            }
+            while (board.getMoveCount() > 0){
+                board.undo();
+            }
+            assertEquals(emptyHash, board.getHash());
+        }
+    }
+
+    @Test
+    void mirroredPositionsShareACanonicalHash(){
+        BitBoard board = play(BitBoard.create(), 0, 1, 1, 5, 6);
+        BitBoard mirrored = play(BitBoard.create(), 6, 5, 5, 1, 0);
+        assertEquals(board.getHash(), mirrored.getMirrorHash());
+        assertEquals(board.getCanonicalHash(), mirrored.getCanonicalHash());
+        assertTrue(board.isMirrored() != mirrored.isMirrored());
+    }
+}
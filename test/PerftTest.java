@@ -0,0 +1,36 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/* Checks the perft counts from the empty board against the known ones (see Perft.KNOWNCOUNTS), counted on one thread and on several. The
+    deeper counts take minutes, so only the first few levels are counted here; java Perft runs the rest. */
+
+class PerftTest {
+
+    private static final int DEPTH = 8;
+
+    @Test
+    void countsMatchTheKnownCounts(){
+        Perft perft = new Perft();
+        for (int depth = 0; depth <= DEPTH; depth++){
+            assertEquals(Perft.KNOWNCOUNTS[depth], perft.count(BitBoard.create(), 'r', depth), "depth " + depth);
+        }
+    }
+
+    @Test
+    void parallelCountsMatchSingleThreadedCounts(){
+        Perft single = new Perft();
+        Perft parallel = new Perft(3);
+        try{
+            for (int depth = 1; depth <= DEPTH; depth++){
+                BitBoard board = PositionKey.fromMoves("4453").toBoard();
+                long lines = single.count(board, 'r', depth);
+                assertEquals(lines, parallel.countParallel(board, 'r', depth), "depth " + depth);
+                assertEquals(single.returnNodeCount(), parallel.returnNodeCount(), "moves at depth " + depth);
+            }
+        }
+        finally{
+            parallel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/* Checks that position keys survive every way of writing them down and setting them up again: as move strings, as hexadecimal text and as
+    boards. */
+
+class PositionKeyTest {
+
+    // Returns the moves of a random game of up to the given length, stopping before any move that would win.
+    static String randomGame(Random random, int length){
+        BitBoard board = BitBoard.create();
+        StringBuilder moves = new StringBuilder();
+        char colour = 'r';
+        while (moves.length() < length){
+            int column = random.nextInt(board.getWidth());
+            if (!board.canPlay(column)){
+                continue;
+            }
+            board.play(column, colour);
+            if (board.hasWon(colour)){
+                break;
+            }
+            moves.append((char) ('1' + column));
+            colour = DepthFirstSearch.opponentOf(colour);
+        }
+        return moves.toString();
+    }
+
+    @Test
+    void roundTripsThroughMovesTextAndBoards(){
+        Random random = new Random(3);
+        for (int game = 0; game < 300; game++){
+            String moves = randomGame(random, random.nextInt(42));
+            PositionKey key = PositionKey.fromMoves(moves);
+            assertEquals(moves.length(), key.returnMoveCount());
+
+            // Any order of moves that reaches the position gives the same key.
+            assertEquals(key, PositionKey.fromMoves(key.toMoves()));
+            assertEquals(key, PositionKey.parse(key.toString()));
+            assertEquals(key, PositionKey.fromKey(key.returnKey(), 7, 6, 4));
+            assertEquals(key, PositionKey.of(key.toBoard()));
+            assertEquals(key.returnColourToMove(), PositionKey.colourToMove(key.toBoard()));
+        }
+    }
+
+    @Test
+    void mirrorImagesShareACanonicalKey(){
+        PositionKey key = PositionKey.fromMoves("1122567");
+        PositionKey mirrored = PositionKey.fromMoves("7766321");
+        assertNotEquals(key, mirrored);
+        assertEquals(mirrored, key.mirror());
+        assertEquals(key, key.mirror().mirror());
+        assertEquals(key.canonical(), mirrored.canonical());
+    }
+
+    @Test
+    void rejectsPositionsNoGameCanReach(){
+        assertThrows(IllegalArgumentException.class, () -> PositionKey.fromMoves("8"));
+        assertThrows(IllegalArgumentException.class, () -> PositionKey.fromMoves("1111111"));
+        assertThrows(IllegalArgumentException.class, () -> PositionKey.fromMoves("121212123"));
+        assertThrows(IllegalArgumentException.class, () -> PositionKey.parse("1234"));
+        assertThrows(IllegalArgumentException.class, () -> PositionKey.parse("0xzz"));
+        assertThrows(IllegalArgumentException.class, () -> PositionKey.fromKey(0, 7, 6, 4));
+
+        // Four counters in the first column, none of them belonging to the player to move.
+        long key = 0b1111 + PositionKey.bottomMask(7, 6);
+        assertThrows(IllegalArgumentException.class, () -> PositionKey.fromKey(key, 7, 6, 4));
+    }
+}
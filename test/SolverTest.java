@@ -0,0 +1,134 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/* Checks the Solver's scores against a plain search of every move to the end of the game, on positions near the end where that search is
+    quick enough to run. */
+
+class SolverTest {
+
+    static final int WINVALUE = 1000;
+
+    /* The value of the position for the colour to move with perfect play, where a win in d moves (counting both players' moves and the
+        winning one) is WINVALUE - d and a loss in d moves is d - WINVALUE, so a win is better the sooner it comes and a loss the later. A
+        draw is 0. Every move is searched, with no pruning, and positions already seen are remembered by their hash. */
+    static int perfectPlay(BitBoard board, char colour, Map<Long, Integer> seen){
+        Long hash = board.getHash();
+        Integer known = seen.get(hash);
+        if (known != null){
+            return known;
+        }
+        char opponent = DepthFirstSearch.opponentOf(colour);
+        int best = Integer.MIN_VALUE;
+        for (int column = 0; column < board.getWidth(); column++){
+            if (!board.canPlay(column)){
+                continue;
+            }
+            board.play(column, colour);
+            int value;
+            if (board.hasWon(colour)){
+                value = WINVALUE - 1;
+            }
+            else if (board.isFull()){
+                value = 0;
+            }
+            else{
+                int reply = perfectPlay(board, opponent, seen);
+                value = 0;
+                if (reply > 0){
+                    value = -(reply - 1);
+                }
+                else if (reply < 0){
+                    value = -(reply + 1);
+                }
+            }
+            board.undo();
+            best = Math.max(best, value);
+        }
+        seen.put(hash, best);
+        return best;
+    }
+
+    // Plays random moves on the board until it has the given number of counters, starting again whenever a move wins.
+    static BitBoard randomGame(BitBoard empty, int moves, Random random){
+        BitBoard board = empty.copy();
+        char colour = 'r';
+        while (board.getMoveCount() < moves){
+            int column = random.nextInt(board.getWidth());
+            if (!board.canPlay(column)){
+                continue;
+            }
+            board.play(column, colour);
+            if (board.hasWon(colour)){
+                board = empty.copy();
+                colour = 'r';
+                continue;
+            }
+            colour = DepthFirstSearch.opponentOf(colour);
+        }
+        return board;
+    }
+
+    // Red moves first, so red is to move whenever an even number of counters have been played.
+    static char colourToMove(BitBoard board){
+        if (board.getMoveCount() % 2 == 0){
+            return 'r';
+        }
+        return 'y';
+    }
+
+    // Converts a value from perfectPlay into a Solver score, which counts the winner's counters left unplayed when they win, plus one.
+    static int solverScore(int value, int moves){
+        if (value == 0){
+            return 0;
+        }
+        int distance = WINVALUE - Math.abs(value);
+        int movesAtEnd = moves + distance - 1;
+        return Integer.signum(value) * (7 * 6 + 1 - movesAtEnd) / 2;
+    }
+
+    private static TranspositionTable table(){
+        return new TranspositionTable(4 << 20, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    @Test
+    void scoresMatchAFullSearchNearTheEnd(){
+        Random random = new Random(11);
+        Solver solver = new Solver(table(), null);
+        int tested = 0;
+        while (tested < 25){
+            BitBoard board = randomGame(BitBoard.create(), 28 + random.nextInt(3), random);
+            char colour = colourToMove(board);
+            int value = perfectPlay(board.copy(), colour, new HashMap<Long, Integer>());
+            int expected = solverScore(value, board.getMoveCount());
+            assertEquals(expected, solver.solve(board, colour), "position " + tested);
+
+            // The best move must keep the score.
+            int move = solver.bestMove(board, colour);
+            board.play(move, colour);
+            if (!board.hasWon(colour) && !board.isFull()){
+                int reply = solver.solve(board, DepthFirstSearch.opponentOf(colour));
+                assertEquals(expected, -reply, "position " + tested + " then " + (move + 1));
+            }
+            tested++;
+        }
+    }
+
+    @Test
+    void scoresAWinOnTheNextMove(){
+        Solver solver = new Solver(table(), null);
+        BitBoard board = BitBoardTest.play(BitBoard.create(), 0, 0, 1, 1, 2, 2);
+        assertEquals((7 * 6 + 1 - 6) / 2, solver.solve(board, 'r'));
+        assertEquals(3, solver.bestMove(board, 'r'));
+    }
+
+    @Test
+    void needsATable(){
+        assertThrows(IllegalArgumentException.class, () -> new Solver(null, null));
+    }
+}
@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/* Generates a small tablebase, reads it back from the file, and checks the stored results and distances against a full search (see
+    SolverTest.perfectPlay) for positions along random games from its starting position. */
+
+class TablebaseTest {
+
+    @Test
+    void readsBackTheResultsItWrote(@TempDir Path directory) throws IOException{
+        // An 8x4 board with 12 empty squares left, small enough to search every position in the table.
+        Random random = new Random(5);
+        BitBoard board = SolverTest.randomGame(BitBoard.create(8, 4, 4), 20, random);
+        int empty = board.getWidth() * board.getBoardHeight() - board.getMoveCount();
+        Path file = directory.resolve("end.tb");
+        int written = Tablebase.generate(board, empty, file);
+
+        Tablebase table = Tablebase.load(file);
+        assertEquals(written, table.returnEntryCount());
+        assertEquals(empty, table.returnMaxEmpty());
+        assertTrue(table.fits(board));
+
+        HashMap<Long, Integer> seen = new HashMap<Long, Integer>();
+        for (int game = 0; game < 40; game++){
+            LongBitBoard position = (LongBitBoard) board.copy();
+            char colour = SolverTest.colourToMove(board);
+            while (true){
+                int entry = table.probe(position, colour);
+                assertNotEquals(Tablebase.NOTFOUND, entry);
+                int value = SolverTest.perfectPlay(position.copy(), colour, seen);
+                int emptyNow = position.getWidth() * position.getBoardHeight() - position.getMoveCount();
+                if (value > 0){
+                    assertEquals(Tablebase.WIN, Tablebase.resultOf(entry));
+                    assertEquals(SolverTest.WINVALUE - value, Tablebase.distanceOf(entry));
+                }
+                else if (value < 0){
+                    assertEquals(Tablebase.LOSS, Tablebase.resultOf(entry));
+                    assertEquals(SolverTest.WINVALUE + value, Tablebase.distanceOf(entry));
+                }
+                else{
+                    assertEquals(Tablebase.DRAW, Tablebase.resultOf(entry));
+                    assertEquals(emptyNow, Tablebase.distanceOf(entry));
+                }
+
+                int column = random.nextInt(position.getWidth());
+                while (!position.canPlay(column)){
+                    column = random.nextInt(position.getWidth());
+                }
+                position.play(column, colour);
+                if (position.hasWon(colour) || position.isFull()){
+                    break;
+                }
+                colour = DepthFirstSearch.opponentOf(colour);
+            }
+        }
+
+        // A position with more empty squares than the table holds is not in it.
+        assertEquals(Tablebase.NOTFOUND, table.probe((LongBitBoard) BitBoard.create(8, 4, 4), 'r'));
+    }
+}
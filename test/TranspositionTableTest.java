@@ -0,0 +1,100 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/* Checks that entries come back out of the transposition table as they went in, that the replacement policies keep the right entry, and
+    that a best move stored for one position is played correctly in its mirror image. */
+
+class TranspositionTableTest {
+
+    @Test
+    void storesAndProbesEntries(){
+        TranspositionTable table = new TranspositionTable(1 << 16, ReplacementPolicy.ALWAYS_REPLACE);
+        assertEquals(4096, table.returnCapacity());
+        long hash = 0x123456789ABCDEFL;
+        assertEquals(0, table.probe(hash));
+
+        table.store(hash, 12, TranspositionTable.LOWER, -345, 6);
+        long entry = table.probe(hash);
+        assertEquals(-345, TranspositionTable.scoreOf(entry));
+        assertEquals(12, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(entry));
+        assertEquals(6, TranspositionTable.moveOf(entry));
+
+        // The same slot with a different hash is a miss, not the stored entry.
+        assertEquals(0, table.probe(hash ^ 1));
+
+        table.store(hash, 3, TranspositionTable.EXACT, 7, -1);
+        assertEquals(-1, TranspositionTable.moveOf(table.probe(hash)));
+
+        table.clear();
+        assertEquals(0, table.probe(hash));
+    }
+
+    @Test
+    void depthPreferredKeepsDeeperEntries(){
+        TranspositionTable table = new TranspositionTable(16, ReplacementPolicy.DEPTH_PREFERRED);
+        assertEquals(1, table.returnCapacity());
+        table.store(1, 10, TranspositionTable.EXACT, 5, 2);
+        table.store(2, 4, TranspositionTable.EXACT, 9, 3);
+        assertEquals(5, TranspositionTable.scoreOf(table.probe(1)));
+        assertEquals(0, table.probe(2));
+        assertEquals(1, table.returnRejections());
+
+        // Entries from an earlier search can be replaced by shallower ones.
+        table.newSearch();
+        table.store(2, 4, TranspositionTable.EXACT, 9, 3);
+        assertEquals(9, TranspositionTable.scoreOf(table.probe(2)));
+    }
+
+    @Test
+    void capsTheSizeOfVeryLargeBudgets(){
+        assertTrue(TranspositionTable.MAXENTRIES * 2 <= Integer.MAX_VALUE);
+        assertEquals(8192L << 20, TranspositionTable.MAXBYTEBUDGET);
+    }
+
+    @Test
+    void rejectsDepthsThatDoNotFit(){
+        TranspositionTable table = new TranspositionTable(1 << 16, ReplacementPolicy.ALWAYS_REPLACE);
+        table.store(1, TranspositionTable.MAXDEPTH, TranspositionTable.UPPER, 0, 3);
+        long entry = table.probe(1);
+        assertEquals(TranspositionTable.MAXDEPTH, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.boundOf(entry));
+        assertEquals(3, TranspositionTable.moveOf(entry));
+        assertThrows(IllegalArgumentException.class, () -> table.store(2, TranspositionTable.MAXDEPTH + 1, TranspositionTable.EXACT, 0, 3));
+    }
+
+    @Test
+    void searchesDeeperThanTheGameStopAtTheEnd(){
+        // Ten squares are left, so a search asked to go 1000 moves deep only searches ten.
+        BitBoard board = BitBoardTest.play(BitBoard.create(), 4, 0, 2, 0, 0, 0, 5, 4, 0, 3, 5, 1, 3, 5, 0, 4, 1, 6, 3, 3, 4, 1, 2, 1, 5, 1, 6, 3, 2, 3,
+            6, 4);
+        AlphaBetaSearch search = new AlphaBetaSearch(1000, new TranspositionTable(1 << 20, ReplacementPolicy.DEPTH_PREFERRED));
+        assertTrue(search.findMove(board, 'r') >= 0);
+        assertEquals(10, search.returnDepthReached());
+    }
+
+    @Test
+    void flipsMovesStoredForTheMirrorImage(){
+        TranspositionTable table = new TranspositionTable(1 << 16, ReplacementPolicy.ALWAYS_REPLACE);
+        BitBoard board = BitBoardTest.play(BitBoard.create(), 0, 1, 1);
+        BitBoard mirrored = BitBoardTest.play(BitBoard.create(), 6, 5, 5);
+
+        // The best move on the first board is column 2, stored the way AlphaBetaSearch stores it.
+        int move = 2;
+        if (board.isMirrored()){
+            move = board.mirrorColumn(move);
+        }
+        table.store(board.getCanonicalHash(), 5, TranspositionTable.EXACT, 0, move);
+
+        // Looked up from the mirror image it is column 4, the same square seen from the other side.
+        long entry = table.probe(mirrored.getCanonicalHash());
+        int stored = TranspositionTable.moveOf(entry);
+        if (mirrored.isMirrored()){
+            stored = mirrored.mirrorColumn(stored);
+        }
+        assertEquals(4, stored);
+    }
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/* Checks the line tables and the Board line checks that use them against the bitboard, which finds the same lines in a completely different
+    way, on random games on boards of several sizes. */
+
+class WinningLinesTest {
+
+    @Test
+    void tablesAreSharedAndGroupedByRowAndColumn(){
+        WinningLines lines = WinningLines.of(7, 6, 4);
+        assertSame(lines, WinningLines.of(7, 6, 4));
+        assertEquals(6, lines.returnGroupCount(WinningLines.HORIZONTAL));
+        assertEquals(7, lines.returnGroupCount(WinningLines.VERTICAL));
+        assertEquals(6, lines.returnGroupCount(WinningLines.DIAGONALRIGHT));
+        assertEquals(6, lines.returnGroupCount(WinningLines.DIAGONALLEFT));
+        assertThrows(IllegalArgumentException.class, () -> WinningLines.of(0, 6, 4));
+    }
+
+    @Test
+    void doesNotJoinDiagonalsAcrossAGap(){
+        /* Red has two counters on one down-right diagonal from the top row and two on the next one along, which the old scan counted as a
+            line of four. */
+        Board board = new Board();
+        int[][] squares = {{0, 0}, {1, 1}, {0, 2}, {1, 3}};
+        for (int column = 0; column < 4; column++){
+            for (int row = board.returnHeight() - 1; row >= 0; row--){
+                char colour = 'y';
+                for (int[] square : squares){
+                    if (square[0] == row && square[1] == column){
+                        colour = 'r';
+                    }
+                }
+                board.makeMove(column, colour);
+            }
+        }
+        assertEquals('r', board.returnSquare(1, 1));
+        assertEquals(2, board.checkDiagonalRight('r', 0));
+    }
+
+    @Test
+    void matchesTheBitboardOnRandomGames(){
+        int[][] sizes = {{7, 6, 4}, {8, 7, 4}, {9, 7, 5}, {5, 4, 3}, {15, 15, 4}, {1, 4, 3}, {4, 1, 3}};
+        Random random = new Random(1);
+        for (int[] size : sizes){
+            for (int game = 0; game < 200; game++){
+                Board board = new Board(size[0], size[1], size[2]);
+                char colour = 'r';
+                while (!board.isBoardFull()){
+                    int column = random.nextInt(size[0]);
+                    if (!board.canPlay(column)){
+                        continue;
+                    }
+                    int row = board.makeMove(column, colour);
+                    for (char player : new char[] {'r', 'y'}){
+                        int longest = board.getMaxScore(player);
+                        assertEquals(board.returnBitBoard().longestRun(player), longest);
+
+                        // The longest line is the longest along any single row, column or diagonal.
+                        int parts = 0;
+                        for (int r = 0; r < size[1]; r++){
+                            parts = Math.max(parts, board.checkHorizontal(player, r));
+                            parts = Math.max(parts, board.checkDiagonalRight(player, r));
+                            parts = Math.max(parts, board.checkDiagonalLeft(player, r));
+                        }
+                        for (int c = 0; c < size[0]; c++){
+                            parts = Math.max(parts, board.checkVertical(player, c));
+                        }
+                        assertEquals(longest, parts);
+                    }
+                    boolean won = board.checkWin(row, column);
+                    assertEquals(board.checkWin(colour), won);
+                    if (won){
+                        break;
+                    }
+                    colour = DepthFirstSearch.opponentOf(colour);
+                }
+            }
+        }
+    }
+}